@@ -12,13 +12,22 @@ repositories {
 dependencies {
     compileOnly(files("libs/HytaleServer.jar"))
     compileOnly(files("libs/tinymessage-2.0.0.jar"))
+    // Tests load plugin classes that reference server types
+    testImplementation(files("libs/HytaleServer.jar"))
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testImplementation("org.mockito:mockito-core:5.18.0")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
+
+// VectorDistanceKernel uses the incubating Vector API (optional at runtime, see README)
+tasks.withType<JavaCompile> {
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
 }
 
 java {
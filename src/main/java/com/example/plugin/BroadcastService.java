@@ -0,0 +1,195 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of one action to many players. Small audiences are served inline; above
+ * {@link #PARALLEL_THRESHOLD} the recipient snapshot is split per world (large worlds into
+ * several chunks) and the chunks run in parallel on virtual threads, the caller waiting for
+ * all of them. Every call reports its wall time. While {@code inline} says so (the action only
+ * enqueues, e.g. async chat delivery), everything stays on the calling thread: PlayerRef is not
+ * known to be safe to send to from several threads at once.
+ *
+ * {@link #sendPaced} does the same off the caller's thread, a slice of players per tick, for
+ * heavy messages that shouldn't all hit the network in the same instant.
+ */
+final class BroadcastService {
+
+    record Result(int recipients, int chunks, long wallNanos) {
+        double wallMillis() {
+            return wallNanos / 1_000_000.0;
+        }
+    }
+
+    static final int PARALLEL_THRESHOLD = 64;
+
+    // Chunks are never smaller than this (per-task overhead vs. the sends it covers)
+    private static final int MIN_CHUNK = 32;
+
+    // Slower than this is worth a console line
+    private static final long SLOW_NANOS = 50_000_000L;
+
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maxChunks = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final BooleanSupplier inline;
+
+    private final AtomicLong broadcasts = new AtomicLong();
+    private volatile Result last;
+
+    BroadcastService(BooleanSupplier inline) {
+        this.inline = inline;
+    }
+
+    /**
+     * Runs {@code action} once per (non-null) player and returns when all are done.
+     * Exceptions from a single player are swallowed.
+     */
+    Result send(Collection<PlayerRef> players, Consumer<PlayerRef> action) {
+        Result r = fanOut(players, action);
+        record(r);
+
+        if (r.wallNanos() >= SLOW_NANOS) {
+            System.out.println("[LocalGlobalChat] Broadcast to " + r.recipients() + " player(s) in "
+                    + r.chunks() + " chunk(s) took " + String.format("%.1f", r.wallMillis()) + " ms.");
+        }
+        return r;
+    }
+
+    /**
+     * Runs {@code action} for {@code perSlice} players every {@code sliceMillis}, on a virtual
+     * thread. Completes with the totals (wall time includes the pauses between slices).
+     */
+    CompletableFuture<Result> sendPaced(List<PlayerRef> players, Consumer<PlayerRef> action, int perSlice, long sliceMillis) {
+        CompletableFuture<Result> done = new CompletableFuture<>();
+        int step = Math.max(1, perSlice);
+
+        Runnable task = () -> {
+            long start = System.nanoTime();
+            int chunks = 0;
+
+            for (int from = 0; from < players.size(); from += step) {
+                if (from > 0 && sliceMillis > 0) {
+                    try {
+                        Thread.sleep(sliceMillis);
+                    } catch (InterruptedException e) {
+                        // Shutting down: finish without pauses
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                chunks += fanOut(players.subList(from, Math.min(players.size(), from + step)), action).chunks();
+            }
+
+            Result r = new Result(players.size(), chunks, System.nanoTime() - start);
+            record(r);
+            done.complete(r);
+        };
+
+        try {
+            threads.execute(task);
+        } catch (Throwable t) {
+            task.run();
+        }
+        return done;
+    }
+
+    private Result fanOut(Collection<PlayerRef> players, Consumer<PlayerRef> action) {
+        long start = System.nanoTime();
+        List<List<PlayerRef>> chunks = (players.size() < PARALLEL_THRESHOLD || inline.getAsBoolean())
+                ? null : partition(players);
+
+        if (chunks == null || chunks.size() < 2) {
+            for (PlayerRef p : players) run(p, action);
+        } else {
+            List<Future<?>> running = new ArrayList<>(chunks.size());
+            try {
+                for (List<PlayerRef> chunk : chunks) {
+                    running.add(threads.submit(() -> {
+                        for (PlayerRef p : chunk) run(p, action);
+                    }));
+                }
+            } catch (Throwable t) {
+                // Shut down: finish what wasn't submitted on this thread
+                for (int i = running.size(); i < chunks.size(); i++) {
+                    for (PlayerRef p : chunks.get(i)) run(p, action);
+                }
+            }
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (Throwable ignored) { }
+            }
+        }
+
+        return new Result(players.size(), (chunks != null) ? chunks.size() : 1, System.nanoTime() - start);
+    }
+
+    private void record(Result r) {
+        last = r;
+        broadcasts.incrementAndGet();
+    }
+
+    long broadcastCount() {
+        return broadcasts.get();
+    }
+
+    // Null until the first broadcast
+    Result lastResult() {
+        return last;
+    }
+
+    void shutdown() {
+        threads.shutdown();
+    }
+
+    private static void run(PlayerRef p, Consumer<PlayerRef> action) {
+        if (p == null) return;
+        try {
+            action.accept(p);
+        } catch (Throwable ignored) { }
+    }
+
+    // Per world first, then worlds bigger than the target size are cut into equal slices
+    List<List<PlayerRef>> partition(Collection<PlayerRef> players) {
+        Map<UUID, List<PlayerRef>> byWorld = new LinkedHashMap<>();
+        List<PlayerRef> noWorld = new ArrayList<>();
+
+        for (PlayerRef p : players) {
+            if (p == null) continue;
+            UUID w = null;
+            try {
+                w = p.getWorldUuid();
+            } catch (Throwable ignored) { }
+            if (w == null) noWorld.add(p);
+            else byWorld.computeIfAbsent(w, k -> new ArrayList<>()).add(p);
+        }
+        if (!noWorld.isEmpty()) byWorld.put(null, noWorld);
+
+        int target = Math.max(MIN_CHUNK, (players.size() + maxChunks - 1) / maxChunks);
+
+        List<List<PlayerRef>> out = new ArrayList<>();
+        for (List<PlayerRef> world : byWorld.values()) {
+            for (int from = 0; from < world.size(); from += target) {
+                out.add(world.subList(from, Math.min(world.size(), from + target)));
+            }
+        }
+        return out;
+    }
+}
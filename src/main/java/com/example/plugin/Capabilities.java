@@ -0,0 +1,526 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Reflection probes for API pieces that differ between server builds (cancel event, ping,
+ * operator check, group lookup, broadcast, sender / UUID / PlayerRef extraction...).
+ * Each concept is probed once per concrete class (or once for singletons like Universe)
+ * and kept as a MethodHandle, or {@link #NONE} when the class doesn't have it.
+ */
+final class Capabilities {
+
+    private Capabilities() {}
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType ACTION_TYPE = MethodType.methodType(void.class, Object.class);
+
+    // "Probed, not available" (ClassValue / volatile fields never hold null)
+    static final MethodHandle NONE = MethodHandles.constant(Object.class, null);
+
+    private static final String UNIVERSE_CLASS = "com.hypixel.hytale.server.core.universe.Universe";
+    private static final String PERMISSIONS_CLASS = "com.hypixel.hytale.server.core.permissions.PermissionsModule";
+
+    private static final String[] OPERATOR_FLAGS = {
+            "isAdmin", "isOperator", "isOp", "isUniverseOperator", "isUniverseOp"
+    };
+    private static final String[] OPERATOR_LEVELS = {
+            "getPermissionLevel", "getOpLevel", "getOperatorLevel"
+    };
+
+    // =========================================================
+    // Per-class probes
+    // =========================================================
+
+    // event class -> (Object)void that cancels it
+    private static final ClassValue<MethodHandle> CANCEL = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (String mn : new String[]{"setCancelled", "setCanceled", "setCanceledFlag"}) {
+                MethodHandle h = find(type, mn, boolean.class);
+                if (h != null) {
+                    return MethodHandles.insertArguments(h, 1, true).asType(ACTION_TYPE);
+                }
+            }
+            MethodHandle h = find(type, "cancel");
+            return (h != null) ? MethodHandles.dropReturn(h).asType(ACTION_TYPE) : NONE;
+        }
+    };
+
+    private static final ClassValue<MethodHandle> PING = getter(Capabilities::isNumberLike,
+            "getPing", "ping",
+            "getLatency", "latency",
+            "getLatencyMs", "latencyMs",
+            "getRtt", "rtt",
+            "getRoundTripTime", "roundTripTime");
+
+    private static final ClassValue<MethodHandle> PACKET_HANDLER = getter(rt -> !rt.isPrimitive(),
+            "getPacketHandler", "packetHandler");
+
+    private static final ClassValue<MethodHandle> SENDER = getter(rt -> !rt.isPrimitive(),
+            "sender", "getSender");
+
+    private static final ClassValue<MethodHandle> UUID_OF = getter(compatible(UUID.class),
+            "getUuid", "uuid", "getUniqueId", "uniqueId");
+
+    private static final ClassValue<MethodHandle> PLAYER_REF_OF = getter(compatible(PlayerRef.class),
+            "getPlayerRef", "getPlayer", "player", "asPlayer", "getSender", "sender");
+
+    private static final ClassValue<MethodHandle> USERNAME_OF = getter(compatible(String.class),
+            "getUsername", "getName", "name");
+
+    private static final ClassValue<MethodHandle> ARGS_OF = getter(rt -> !rt.isPrimitive(),
+            "args", "getArgs",
+            "arguments", "getArguments",
+            "rawArgs", "getRawArgs",
+            "parameters", "getParameters");
+
+    // Every raw-input getter: an empty one (e.g. getInputString) must not hide the next
+    private static final ClassValue<MethodHandle[]> RAW_INPUT_OF = getters(compatible(String.class),
+            "getInputString", "getRawInput", "rawInput",
+            "getInput", "input",
+            "getRaw", "raw",
+            "getCommandLine", "commandLine");
+
+    // class -> (Object, String)Object hasPermission-like check
+    private static final ClassValue<MethodHandle> HAS_PERMISSION = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (String mn : new String[]{"hasPermission", "hasPermissionNode", "hasPerm", "permission"}) {
+                MethodHandle h = find(type, mn, String.class);
+                if (h != null && isBooleanLike(h.type().returnType())) {
+                    return h.asType(MethodType.methodType(Object.class, Object.class, String.class));
+                }
+            }
+            return NONE;
+        }
+    };
+
+    // class -> every admin/operator boolean flag it has
+    private static final ClassValue<MethodHandle[]> OPERATOR = getters(Capabilities::isBooleanLike, OPERATOR_FLAGS);
+
+    // PlayerRef admin level: the first flag found decides, else the first permission level
+    private static final ClassValue<MethodHandle> ADMIN_FLAG = getter(Capabilities::isBooleanLike,
+            "isAdmin", "isOperator", "isOp");
+    private static final ClassValue<MethodHandle> ADMIN_LEVEL = getter(Capabilities::isNumberLike, OPERATOR_LEVELS);
+
+    // PlayerRef universe-op flag (first found decides), else Universe.isOperator(uuid)
+    private static final ClassValue<MethodHandle> UNIVERSE_FLAG = getter(Capabilities::isBooleanLike,
+            "isUniverseOperator", "isUniverseOp", "isOperator");
+
+    // =========================================================
+    // Singletons (Universe / PermissionsModule)
+    // =========================================================
+
+    private static volatile MethodHandle universeGet = NONE;          // ()Object
+    private static volatile MethodHandle universeOperator = NONE;     // (Object, UUID)Object
+    private static volatile MethodHandle universeBroadcast = NONE;    // (Object, Message)void
+    private static volatile MethodHandle permissionsGet = NONE;       // ()Object
+    private static volatile MethodHandle permissionsGroups = NONE;    // (Object, UUID)Object
+
+    private static volatile boolean probed;
+
+    /**
+     * Probes the singleton capabilities (and warms the per-class ones for the usual classes).
+     * Returns a one-line report for the log.
+     */
+    static synchronized String probe(Class<?>... warm) {
+        Class<?> uni = load(UNIVERSE_CLASS);
+        universeGet = staticGetter(uni);
+        universeOperator = NONE;
+        universeBroadcast = NONE;
+
+        Class<?> uniType = runtimeClass(universeGet, uni);
+        if (uniType != null) {
+            for (String mn : new String[]{"isOperator", "isOp", "isPlayerOperator", "isUniverseOperator"}) {
+                MethodHandle h = find(uniType, mn, UUID.class);
+                if (h != null && isBooleanLike(h.type().returnType())) {
+                    universeOperator = h.asType(MethodType.methodType(Object.class, Object.class, UUID.class));
+                    break;
+                }
+            }
+            for (String mn : new String[]{"broadcastMessage", "broadcast", "sendMessageToAll", "broadcastToAll"}) {
+                MethodHandle h = find(uniType, mn, Message.class);
+                if (h != null) {
+                    universeBroadcast = MethodHandles.dropReturn(h)
+                            .asType(MethodType.methodType(void.class, Object.class, Message.class));
+                    break;
+                }
+            }
+        }
+
+        Class<?> pm = load(PERMISSIONS_CLASS);
+        permissionsGet = staticGetter(pm);
+        permissionsGroups = NONE;
+
+        Class<?> pmType = runtimeClass(permissionsGet, pm);
+        if (pmType != null) {
+            for (String mn : new String[]{"getGroupsForUser", "getGroupsOfUser", "getUserGroups", "getGroupsByUser"}) {
+                MethodHandle h = find(pmType, mn, UUID.class);
+                if (h != null && h.type().returnType() != void.class) {
+                    permissionsGroups = h.asType(MethodType.methodType(Object.class, Object.class, UUID.class));
+                    break;
+                }
+            }
+        }
+
+        probed = true;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("universeOp=").append(yesNo(universeOperator));
+        sb.append(", broadcast=").append(yesNo(universeBroadcast));
+        sb.append(", groups=").append(yesNo(permissionsGroups));
+
+        for (Class<?> c : warm) {
+            if (c == null) continue;
+            String n = c.getSimpleName();
+            sb.append(", ").append(n).append("{");
+            sb.append("cancel=").append(yesNo(CANCEL.get(c)));
+            sb.append(" ping=").append(yesNo(PING.get(c)));
+            sb.append(" uuid=").append(yesNo(UUID_OF.get(c)));
+            sb.append(" operator=").append(OPERATOR.get(c).length);
+            sb.append("}");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * False if Universe or PermissionsModule was missing when probed (worth probing again later).
+     */
+    static boolean complete() {
+        return probed && universeGet != NONE && permissionsGet != NONE;
+    }
+
+    private static void ensureProbed() {
+        if (!probed) probe();
+    }
+
+    // =========================================================
+    // Calls
+    // =========================================================
+
+    static boolean cancel(Object event) {
+        if (event == null) return false;
+        MethodHandle h = CANCEL.get(event.getClass());
+        if (h == NONE) return false;
+        try {
+            h.invokeExact(event);
+            return true;
+        } catch (Throwable ignored) { }
+        return false;
+    }
+
+    @Nullable
+    static Integer ping(Object obj) {
+        Object r = get(PING, obj);
+        if (r instanceof Number n) return n.intValue();
+        if (r instanceof String s) {
+            try { return Integer.parseInt(s.trim()); } catch (Throwable ignored) { }
+        }
+        return null;
+    }
+
+    @Nullable
+    static Object packetHandler(Object obj) {
+        return get(PACKET_HANDLER, obj);
+    }
+
+    @Nullable
+    static Object sender(Object context) {
+        return get(SENDER, context);
+    }
+
+    @Nullable
+    static UUID uuidOf(Object obj) {
+        if (obj instanceof PlayerRef pr) {
+            try { return pr.getUuid(); } catch (Throwable ignored) { }
+            return null;
+        }
+        return (get(UUID_OF, obj) instanceof UUID u) ? u : null;
+    }
+
+    @Nullable
+    static PlayerRef playerRefOf(Object obj) {
+        if (obj instanceof PlayerRef pr) return pr;
+        return (get(PLAYER_REF_OF, obj) instanceof PlayerRef pr) ? pr : null;
+    }
+
+    @Nullable
+    static String usernameOf(Object obj) {
+        return (get(USERNAME_OF, obj) instanceof String s) ? s : null;
+    }
+
+    @Nullable
+    static Object argsOf(Object context) {
+        return get(ARGS_OF, context);
+    }
+
+    /**
+     * First non-blank raw command line the context exposes (getters tried in order).
+     */
+    @Nullable
+    static String rawInputOf(Object context) {
+        if (context == null) return null;
+        for (MethodHandle h : RAW_INPUT_OF.get(context.getClass())) {
+            try {
+                Object r = (Object) h.invokeExact(context);
+                if (r instanceof String s && !s.isBlank()) return s;
+            } catch (Throwable ignored) { }
+        }
+        return null;
+    }
+
+    /**
+     * Result of the sender's hasPermission-like method, or null if it has none.
+     */
+    @Nullable
+    static Boolean hasPermission(Object sender, String node) {
+        if (sender == null) return null;
+        MethodHandle h = HAS_PERMISSION.get(sender.getClass());
+        if (h == NONE) return null;
+        try {
+            Object r = (Object) h.invokeExact(sender, node);
+            if (r instanceof Boolean b) return b;
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    /**
+     * True if any admin/operator flag of the object is set (permission levels are not looked at).
+     */
+    static boolean isOperator(Object obj) {
+        if (obj == null) return false;
+        for (MethodHandle h : OPERATOR.get(obj.getClass())) {
+            try {
+                Object r = (Object) h.invokeExact(obj);
+                if (r instanceof Boolean b && b) return true;
+            } catch (Throwable ignored) { }
+        }
+        return false;
+    }
+
+    /**
+     * Admin by level: the first admin/operator flag found decides; without one, a permission
+     * level >= 2.
+     */
+    static boolean isAdminLevel(PlayerRef p) {
+        Object flag = get(ADMIN_FLAG, p);
+        if (flag instanceof Boolean b) return b;
+        return get(ADMIN_LEVEL, p) instanceof Number n && n.intValue() >= 2;
+    }
+
+    /**
+     * The player's own universe-operator flag if it has one, else the Universe lookup by UUID.
+     */
+    static boolean isUniverseOperator(PlayerRef p) {
+        if (p == null) return false;
+        Object flag = get(UNIVERSE_FLAG, p);
+        if (flag instanceof Boolean b) return b;
+        return universeOperator(uuidOf(p));
+    }
+
+    static boolean universeOperator(UUID uuid) {
+        ensureProbed();
+        MethodHandle h = universeOperator;
+        if (uuid == null || h == NONE) return false;
+
+        Object uni = singleton(universeGet);
+        if (uni == null) return false;
+        try {
+            Object r = (Object) h.invokeExact(uni, uuid);
+            return r instanceof Boolean b && b;
+        } catch (Throwable ignored) { }
+        return false;
+    }
+
+    static Set<String> groups(UUID uuid) {
+        ensureProbed();
+        MethodHandle h = permissionsGroups;
+        if (uuid == null || h == NONE) return Collections.emptySet();
+
+        Object pm = singleton(permissionsGet);
+        if (pm == null) return Collections.emptySet();
+        try {
+            return toStringSet((Object) h.invokeExact(pm, uuid));
+        } catch (Throwable ignored) { }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Server-side broadcast. Returns false if this build has none (caller falls back to a loop).
+     */
+    static boolean broadcast(Message msg) {
+        ensureProbed();
+        MethodHandle h = universeBroadcast;
+        if (h == NONE) return false;
+
+        Object uni = singleton(universeGet);
+        if (uni == null) return false;
+        try {
+            h.invokeExact(uni, msg);
+            return true;
+        } catch (Throwable ignored) { }
+        return false;
+    }
+
+    // =========================================================
+    // Probing helpers
+    // =========================================================
+
+    // First no-arg method (in name order) whose return type the predicate accepts
+    private static ClassValue<MethodHandle> getter(Predicate<Class<?>> returns, String... names) {
+        return new ClassValue<>() {
+            @Override
+            protected MethodHandle computeValue(Class<?> type) {
+                for (String mn : names) {
+                    MethodHandle h = findGetter(type, mn);
+                    if (h != null && returns.test(h.type().returnType())) return h.asType(GETTER_TYPE);
+                }
+                return NONE;
+            }
+        };
+    }
+
+    // Every such method, in name order (empty array if none)
+    private static ClassValue<MethodHandle[]> getters(Predicate<Class<?>> returns, String... names) {
+        return new ClassValue<>() {
+            @Override
+            protected MethodHandle[] computeValue(Class<?> type) {
+                List<MethodHandle> out = new ArrayList<>();
+                for (String mn : names) {
+                    MethodHandle h = findGetter(type, mn);
+                    if (h != null && returns.test(h.type().returnType())) out.add(h.asType(GETTER_TYPE));
+                }
+                return out.toArray(new MethodHandle[0]);
+            }
+        };
+    }
+
+    // Declared type could hold a value of the wanted type
+    private static Predicate<Class<?>> compatible(Class<?> want) {
+        return rt -> rt.isAssignableFrom(want) || want.isAssignableFrom(rt);
+    }
+
+    @Nullable
+    private static Object get(ClassValue<MethodHandle> cv, Object obj) {
+        if (obj == null) return null;
+        MethodHandle h = cv.get(obj.getClass());
+        if (h == NONE) return null;
+        try {
+            return (Object) h.invokeExact(obj);
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    /**
+     * Public no-arg instance method with a non-void result, as a handle taking the receiver
+     * (null if missing). Shared with {@link PositionAccessor}.
+     */
+    @Nullable
+    static MethodHandle findGetter(Class<?> type, String name) {
+        MethodHandle h = find(type, name);
+        return (h != null && h.type().returnType() != void.class) ? h : null;
+    }
+
+    // Public instance method as a handle taking the receiver first (null if missing)
+    @Nullable
+    private static MethodHandle find(Class<?> type, String name, Class<?>... params) {
+        Method m;
+        try {
+            m = type.getMethod(name, params);
+        } catch (Throwable t) {
+            return null;
+        }
+        if (Modifier.isStatic(m.getModifiers())) return null;
+
+        // Public method on a public type: no access tricks needed
+        try {
+            return MethodHandles.publicLookup().unreflect(m);
+        } catch (Throwable ignored) { }
+
+        // Non-public implementation class: same as the old setAccessible path
+        try {
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m);
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    private static MethodHandle staticGetter(@Nullable Class<?> type) {
+        if (type == null) return NONE;
+        try {
+            Method m = type.getMethod("get");
+            if (!Modifier.isStatic(m.getModifiers())) return NONE;
+            return MethodHandles.publicLookup().unreflect(m).asType(MethodType.methodType(Object.class));
+        } catch (Throwable ignored) { }
+        return NONE;
+    }
+
+    @Nullable
+    private static Object singleton(MethodHandle get) {
+        if (get == NONE) return null;
+        try {
+            return (Object) get.invokeExact();
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    // Concrete class of the singleton if it exists already, else the declared one
+    @Nullable
+    private static Class<?> runtimeClass(MethodHandle get, @Nullable Class<?> declared) {
+        Object o = singleton(get);
+        return (o != null) ? o.getClass() : declared;
+    }
+
+    @Nullable
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    private static boolean isNumberLike(Class<?> rt) {
+        if (rt.isPrimitive()) return rt != boolean.class && rt != char.class && rt != void.class;
+        return Number.class.isAssignableFrom(rt) || rt == String.class || rt == Object.class;
+    }
+
+    private static boolean isBooleanLike(Class<?> rt) {
+        return rt == boolean.class || rt == Boolean.class || rt == Object.class;
+    }
+
+    private static String yesNo(MethodHandle h) {
+        return (h == NONE) ? "none" : "yes";
+    }
+
+    private static Set<String> toStringSet(Object src) {
+        if (src == null) return Collections.emptySet();
+
+        Set<String> out = new HashSet<>();
+        if (src instanceof Iterable<?> it) {
+            for (Object o : it) if (o != null) out.add(String.valueOf(o));
+            return out;
+        }
+        if (src instanceof Object[] arr) {
+            for (Object o : arr) if (o != null) out.add(String.valueOf(o));
+            return out;
+        }
+        out.add(String.valueOf(src));
+        return out;
+    }
+}
@@ -11,6 +11,8 @@ public class ChatAdminCommand extends AbstractCommandCollection {
         this.addSubCommand(new ChatAdminAddCommand(plugin));
         this.addSubCommand(new ChatAdminRemoveCommand(plugin));
         this.addSubCommand(new ChatAdminListCommand(plugin));
+        this.addSubCommand(new ChatAdminImportCommand(plugin));
+        this.addSubCommand(new ChatAdminExportCommand(plugin));
 
         // Permissions are enforced in execute to keep console/op working across builds
         LGChatCompat.relaxCommandPermissions(this);
@@ -0,0 +1,97 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * /chatadmin export <file>: writes the chat-admin list (one UUID per line) to a file in the
+ * data dir (on the plugin's transfer thread). The output can be fed back to /chatadmin import.
+ */
+public class ChatAdminExportCommand extends CommandBase {
+
+    // Progress message every N UUIDs written
+    private static final int PROGRESS_LINES = 5000;
+
+    private final LocalGlobalChatPlugin plugin;
+
+    private final RequiredArg<String> fileArg =
+            this.withRequiredArg("file", "localglobalchat.commands.chatadmin.export.file", ArgTypes.STRING);
+
+    public ChatAdminExportCommand(LocalGlobalChatPlugin plugin) {
+        super("export", "localglobalchat.commands.chatadmin.export.desc");
+        this.plugin = plugin;
+
+        LGChatCompat.relaxCommandPermissions(this);
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        if (!plugin.canUseChatAdmin(context)) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red", "You don't have permission."));
+            return;
+        }
+
+        String name = fileArg.get(context);
+        Path file = plugin.resolveDataFile(name);
+        if (file == null) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red",
+                    "Invalid file name: use a plain file name inside the plugin data folder."));
+            return;
+        }
+
+        context.sendMessage(LocalGlobalChatPlugin.systemColor("gray", "Exporting chatadmins to " + file.getFileName() + "..."));
+        plugin.runTransfer(() -> runExport(context, file));
+    }
+
+    private void runExport(CommandContext context, Path file) {
+        Set<UUID> admins = plugin.getChatAdminsSnapshot();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write("# LocalGlobalChat chatadmins (" + admins.size() + ")");
+                out.newLine();
+
+                for (UUID u : admins) {
+                    out.write(u.toString());
+                    out.newLine();
+                    written++;
+
+                    if (written % PROGRESS_LINES == 0) {
+                        context.sendMessage(LocalGlobalChatPlugin.systemColor("gray",
+                                "Export: " + written + "/" + admins.size() + " written..."));
+                    }
+                }
+            }
+
+            // Readers never see a half-written export
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Throwable t) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (Throwable ignored) { }
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red", "Export failed writing " + file.getFileName() + "."));
+            return;
+        }
+
+        context.sendMessage(LocalGlobalChatPlugin.systemColor("green",
+                "Export done: " + written + " chatadmin(s) written to " + file.getFileName() + "."));
+    }
+}
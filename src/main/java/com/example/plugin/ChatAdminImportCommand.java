@@ -0,0 +1,105 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * /chatadmin import <file>: reads UUIDs (one per line, or comma/space separated; '#' starts a
+ * comment) from a file in the data dir and adds them all with a single store write.
+ * The file is read on the plugin's transfer thread; only the batch add runs on the scheduler.
+ */
+public class ChatAdminImportCommand extends CommandBase {
+
+    // Progress message every N lines read
+    private static final int PROGRESS_LINES = 5000;
+
+    private final LocalGlobalChatPlugin plugin;
+
+    private final RequiredArg<String> fileArg =
+            this.withRequiredArg("file", "localglobalchat.commands.chatadmin.import.file", ArgTypes.STRING);
+
+    public ChatAdminImportCommand(LocalGlobalChatPlugin plugin) {
+        super("import", "localglobalchat.commands.chatadmin.import.desc");
+        this.plugin = plugin;
+
+        LGChatCompat.relaxCommandPermissions(this);
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        if (!plugin.canUseChatAdmin(context)) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red", "You don't have permission."));
+            return;
+        }
+
+        String name = fileArg.get(context);
+        Path file = plugin.resolveDataFile(name);
+        if (file == null) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red",
+                    "Invalid file name: use a plain file name inside the plugin data folder."));
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red", "File not found: " + file.getFileName()));
+            return;
+        }
+
+        context.sendMessage(LocalGlobalChatPlugin.systemColor("gray", "Importing chatadmins from " + file.getFileName() + "..."));
+        plugin.runTransfer(() -> runImport(context, file));
+    }
+
+    private void runImport(CommandContext context, Path file) {
+        Set<UUID> read = new LinkedHashSet<>();
+        int lines = 0;
+        int invalid = 0;
+
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines++;
+
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+
+                for (String token : line.split("[,;\\s]+")) {
+                    if (token.isEmpty()) continue;
+                    try {
+                        read.add(UUID.fromString(token));
+                    } catch (IllegalArgumentException e) {
+                        invalid++;
+                    }
+                }
+
+                if (lines % PROGRESS_LINES == 0) {
+                    context.sendMessage(LocalGlobalChatPlugin.systemColor("gray",
+                            "Import: " + lines + " lines read, " + read.size() + " UUIDs..."));
+                }
+            }
+        } catch (Throwable t) {
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("red",
+                    "Import failed while reading " + file.getFileName() + " (nothing was applied)."));
+            return;
+        }
+
+        // Applied only once the whole file parsed: one batch, one write (back on the scheduler)
+        int skipped = invalid;
+        plugin.runAsync(() -> {
+            int added = plugin.addChatAdmins(read);
+
+            context.sendMessage(LocalGlobalChatPlugin.systemColor("green",
+                    "Import done: " + added + " added, " + (read.size() - added) + " already on the list"
+                            + (skipped > 0 ? ", " + skipped + " invalid entries skipped" : "") + "."));
+        });
+    }
+}
@@ -7,6 +7,7 @@ import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.UUID;
 
 public class ChatAdminRemoveCommand extends CommandBase {
@@ -34,6 +35,14 @@ public class ChatAdminRemoveCommand extends CommandBase {
         UUID uuid = plugin.resolvePlayerOrUuid(token);
 
         if (uuid == null) {
+            List<String> matches = plugin.suggestPlayerNames(token);
+            if (!matches.isEmpty()) {
+                context.sendMessage(LocalGlobalChatPlugin.systemColor("red",
+                        "No player named \"" + token + "\". Did you mean: " + String.join(", ", matches)
+                                + "? Use the full name or a UUID."));
+                return;
+            }
+
             context.sendMessage(LocalGlobalChatPlugin.systemColor("red",
                     "Player not found online and invalid UUID. Use a UUID for offline players."));
             return;
@@ -0,0 +1,442 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Optional async chat delivery (asyncChat=true). The chat event only captures a {@link Snapshot}
+ * and enqueues it; on virtual threads the intake stage resolves recipients and renders the
+ * line (events in arrival order), then hands one Message per recipient to that recipient's
+ * outbox. Each outbox drains on its own virtual thread, so a player sees their messages in
+ * the order they were queued and a slow send never holds up anybody else.
+ *
+ * Outboxes are bounded ({@link #configure}): when one is full, chat lines are dropped
+ * according to the {@link DropPolicy} (GLOBAL lines before LOCAL ones); private messages and
+ * notices are never dropped. Players whose ping is above the slow threshold get a quarter of
+ * the limit, so a stalled connection can't pile up a long backlog.
+ *
+ * Outboxes also coalesce: a drain waits {@link #setCoalesceMillis one tick} (by default) and
+ * sends everything queued by then as one multi-line Message, in queue order.
+ */
+final class ChatPipeline {
+
+    /**
+     * Everything the later stages need, read on the event thread.
+     */
+    record Snapshot(PlayerRef sender, UUID senderUuid, String senderName, ChatMode mode, boolean debug,
+                    String text, UUID world, double x, double y, double z, List<PlayerRef> targets) {}
+
+    enum Kind {
+        GLOBAL(true),
+        LOCAL(true),
+        PRIVATE(false),
+        NOTICE(false);
+
+        final boolean droppable;
+
+        Kind(boolean droppable) {
+            this.droppable = droppable;
+        }
+
+        static Kind of(ChatMode mode) {
+            return (mode == ChatMode.GLOBAL) ? GLOBAL : LOCAL;
+        }
+    }
+
+    enum DropPolicy {
+        // Make room by dropping the oldest queued chat line (GLOBAL first, then LOCAL)
+        DROP_OLDEST,
+        // Keep the backlog, drop the incoming chat line
+        DROP_NEWEST;
+
+        /**
+         * "drop-oldest" / "drop-newest" (case-insensitive); null if unknown.
+         */
+        static DropPolicy parse(String raw) {
+            if (raw == null) return null;
+            String v = raw.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+            for (DropPolicy p : values()) {
+                if (p.name().equals(v)) return p;
+            }
+            return null;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    static final int DEFAULT_QUEUE_LIMIT = 64;
+    static final int DEFAULT_SLOW_PING_MS = 1000;
+    static final int MIN_QUEUE_LIMIT = 4;
+    static final int MAX_QUEUE_LIMIT = 4096;
+
+    // PMs / notices are never dropped for room, only past this many times the limit (client stuck)
+    static final int HARD_LIMIT_FACTOR = 8;
+    private static final long PING_REFRESH_MS = 2_000L;
+
+    static final int DEFAULT_COALESCE_MS = 50; // one server tick
+    static final int MAX_COALESCE_MS = 1000;
+    private static final int MAX_BATCH = 32;    // lines per combined Message
+    private static final Message NEWLINE = Message.raw("\n");
+
+    private record Item(Message msg, Kind kind) {}
+
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Lane<Snapshot> intake;
+    private final Map<UUID, Outbox> outboxes = new ConcurrentHashMap<>();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong packets = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Function<PlayerRef, Integer> ping;
+
+    private volatile int queueLimit = DEFAULT_QUEUE_LIMIT;
+    private volatile DropPolicy dropPolicy = DropPolicy.DROP_OLDEST;
+    private volatile int slowPingMs = DEFAULT_SLOW_PING_MS;
+    private volatile int coalesceMs = DEFAULT_COALESCE_MS;
+
+    /**
+     * @param process resolve + render + {@link #deliver} for one chat event (runs on the intake lane)
+     * @param ping    latency of a player in ms, or null if unknown
+     */
+    ChatPipeline(Consumer<Snapshot> process, Function<PlayerRef, Integer> ping) {
+        this.intake = new Lane<>(process);
+        this.ping = ping;
+    }
+
+    /**
+     * @param slowPingMs players at or above this ping get a quarter of the limit (0 = ignore ping)
+     */
+    void configure(int queueLimit, DropPolicy policy, int slowPingMs) {
+        this.queueLimit = clampQueueLimit(queueLimit);
+        this.dropPolicy = (policy != null) ? policy : DropPolicy.DROP_OLDEST;
+        this.slowPingMs = Math.max(0, slowPingMs);
+    }
+
+    /**
+     * How long an outbox gathers lines before sending them as one Message (0 = send each line).
+     */
+    void setCoalesceMillis(int ms) {
+        this.coalesceMs = Math.max(0, Math.min(MAX_COALESCE_MS, ms));
+    }
+
+    /**
+     * The queue limit actually used for {@code limit} (the one to persist).
+     */
+    static int clampQueueLimit(int limit) {
+        return Math.max(MIN_QUEUE_LIMIT, Math.min(MAX_QUEUE_LIMIT, limit));
+    }
+
+    void submit(Snapshot s) {
+        intake.offer(s);
+    }
+
+    /**
+     * Queues {@code msg} on the recipient's outbox (or sends it inline if the player has no UUID).
+     * Chat lines may be dropped when the outbox is full, other kinds never are.
+     */
+    void deliver(PlayerRef to, Message msg, Kind kind) {
+        if (to == null || msg == null) return;
+
+        UUID u = Capabilities.uuidOf(to);
+        if (u == null) {
+            send(to, msg);
+            return;
+        }
+
+        Outbox box = outboxes.computeIfAbsent(u, k -> new Outbox());
+        box.target = to;
+        box.offer(new Item(msg, kind));
+    }
+
+    /**
+     * Drops the outbox of a player who left (pending lines included).
+     */
+    void forget(UUID uuid) {
+        if (uuid != null) outboxes.remove(uuid);
+    }
+
+    long deliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Sends actually made (one per combined Message); compare with {@link #deliveredCount()}.
+     */
+    long packetCount() {
+        return packets.get();
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Chat lines dropped for this player since their outbox was created.
+     */
+    long droppedFor(UUID uuid) {
+        Outbox box = (uuid != null) ? outboxes.get(uuid) : null;
+        return (box != null) ? box.dropped.get() : 0L;
+    }
+
+    int pendingFor(UUID uuid) {
+        Outbox box = (uuid != null) ? outboxes.get(uuid) : null;
+        return (box != null) ? box.pending() : 0;
+    }
+
+    int outboxCount() {
+        return outboxes.size();
+    }
+
+    /**
+     * Stops taking work; lines already queued get a short grace period to go out.
+     */
+    void shutdown() {
+        threads.shutdown();
+        try {
+            threads.awaitTermination(500L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(PlayerRef to, Message msg) {
+        try {
+            to.sendMessage(msg);
+            delivered.incrementAndGet();
+            packets.incrementAndGet();
+        } catch (Throwable ignored) { }
+    }
+
+    // Lines joined with newlines, original order
+    private void sendBatch(PlayerRef to, List<Message> batch) {
+        if (batch.size() == 1) {
+            send(to, batch.get(0));
+            return;
+        }
+
+        Message[] parts = new Message[batch.size() * 2 - 1];
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) parts[i * 2 - 1] = NEWLINE;
+            parts[i * 2] = batch.get(i);
+        }
+
+        try {
+            to.sendMessage(LGChatCompat.concat(parts));
+            delivered.addAndGet(batch.size());
+            packets.incrementAndGet();
+        } catch (Throwable ignored) { }
+    }
+
+    // One recipient: the PlayerRef is refreshed on every deliver (rejoin = new ref)
+    private final class Outbox {
+
+        volatile PlayerRef target;
+        final AtomicLong dropped = new AtomicLong();
+
+        // Guarded by this
+        private final ArrayDeque<Item> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean warned;
+        private boolean overflowWarned;
+
+        private volatile int lastPing = -1;
+        private volatile long pingAt;
+
+        void offer(Item item) {
+            boolean start;
+            synchronized (this) {
+                if (item.kind().droppable) {
+                    if (!makeRoom()) {
+                        countDrop();
+                        return;
+                    }
+                } else if (queue.size() >= queueLimit * HARD_LIMIT_FACTOR) {
+                    countOverflow();
+                    return;
+                }
+                queue.addLast(item);
+                start = !scheduled;
+                scheduled = true;
+            }
+
+            if (start) {
+                try {
+                    threads.execute(this::drain);
+                } catch (Throwable t) {
+                    // Shut down: nothing will drain this outbox any more
+                    synchronized (this) {
+                        scheduled = false;
+                    }
+                }
+            }
+        }
+
+        synchronized int pending() {
+            return queue.size();
+        }
+
+        private void drain() {
+            // Let the rest of this tick's lines arrive (a parked virtual thread costs nothing)
+            int window = coalesceMs;
+            if (window > 0) {
+                try {
+                    Thread.sleep(window);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            List<Message> batch = new ArrayList<>();
+            while (true) {
+                batch.clear();
+                synchronized (this) {
+                    Item item;
+                    while (batch.size() < MAX_BATCH && (item = queue.pollFirst()) != null) {
+                        batch.add(item.msg());
+                    }
+                    if (batch.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+
+                if (window > 0) sendBatch(target, batch);
+                else for (Message m : batch) send(target, m);
+            }
+        }
+
+        // Caller holds the lock. True if a chat line may be queued now.
+        private boolean makeRoom() {
+            if (queue.size() < limit()) return true;
+            if (dropPolicy == DropPolicy.DROP_NEWEST) return false;
+
+            if (removeOldest(Kind.GLOBAL) || removeOldest(Kind.LOCAL)) {
+                countDrop();
+                return true;
+            }
+            // Full of PMs / notices: those stay, the new line goes
+            return false;
+        }
+
+        private boolean removeOldest(Kind kind) {
+            for (Iterator<Item> it = queue.iterator(); it.hasNext(); ) {
+                if (it.next().kind() == kind) {
+                    it.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void countDrop() {
+            dropped.incrementAndGet();
+            ChatPipeline.this.dropped.incrementAndGet();
+
+            if (!warned) {
+                warned = true;
+                System.out.println("[LocalGlobalChat] Chat queue full for " + targetName()
+                        + ": dropping chat lines (" + dropPolicy.key() + ").");
+            }
+        }
+
+        // Caller holds the lock
+        private void countOverflow() {
+            dropped.incrementAndGet();
+            ChatPipeline.this.dropped.incrementAndGet();
+
+            if (!overflowWarned) {
+                overflowWarned = true;
+                System.out.println("[LocalGlobalChat] " + targetName() + " is not reading messages ("
+                        + queue.size() + " queued): dropping private messages and notices too.");
+            }
+        }
+
+        private String targetName() {
+            String name = null;
+            try {
+                name = target.getUsername();
+            } catch (Throwable ignored) { }
+            return (name != null) ? name : "A player";
+        }
+
+        private int limit() {
+            int limit = queueLimit;
+            int slow = slowPingMs;
+            if (slow <= 0) return limit;
+
+            // Ping is a reflective call: refreshed at most every PING_REFRESH_MS
+            long now = System.currentTimeMillis();
+            if (now - pingAt >= PING_REFRESH_MS) {
+                pingAt = now;
+                Integer p = null;
+                try {
+                    p = ping.apply(target);
+                } catch (Throwable ignored) { }
+                lastPing = (p != null) ? p : -1;
+            }
+
+            return (lastPing >= slow) ? Math.max(MIN_QUEUE_LIMIT, limit / 4) : limit;
+        }
+    }
+
+    /**
+     * Unbounded FIFO drained by at most one virtual thread at a time (the intake stage).
+     */
+    private final class Lane<T> {
+
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Consumer<T> sink;
+
+        Lane(Consumer<T> sink) {
+            this.sink = sink;
+        }
+
+        void offer(T item) {
+            queue.offer(item);
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    threads.execute(this::drain);
+                } catch (Throwable t) {
+                    // Shut down: nothing will drain this lane any more
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                T item;
+                while ((item = queue.poll()) != null) {
+                    try {
+                        sink.accept(item);
+                    } catch (Throwable ignored) { }
+                }
+                scheduled.set(false);
+                // An offer may have slipped in after the last poll
+            } while (!queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.plugin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared background scheduler for the plugin (daemon threads). Replaces the per-feature
+ * java.util.Timer threads; tasks never die on an exception.
+ */
+final class ChatScheduler {
+
+    private static final int THREADS = 2;
+    private static final long SHUTDOWN_GRACE_MS = 3_000L;
+
+    private final ScheduledExecutorService executor;
+
+    ChatScheduler() {
+        AtomicInteger n = new AtomicInteger();
+        ThreadFactory tf = r -> {
+            Thread t = new Thread(r, "LocalGlobalChat-Scheduler-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        executor = Executors.newScheduledThreadPool(THREADS, tf);
+    }
+
+    ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelayMs, long periodMs) {
+        return executor.scheduleAtFixedRate(safe(task), initialDelayMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        return executor.schedule(safe(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    void execute(Runnable task) {
+        executor.execute(safe(task));
+    }
+
+    /**
+     * Stops periodic tasks and lets one-shot tasks already queued (config writes, store
+     * compaction) finish; only what is still running after the grace period is interrupted.
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(SHUTDOWN_GRACE_MS, TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    private static Runnable safe(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Throwable ignored) { }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.plugin;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A chat format compiled once into literal / placeholder segments.
+ * Placeholders found in {@code constants} (colors, tags...) are folded into the literals
+ * at compile time; placeholders named in {@code params} become positional slots that are
+ * filled on every render. Unknown placeholders are kept as literal text.
+ *
+ * For markup layouts, {@link #markup()} also gives each literal as a self-contained (tag
+ * balanced) piece plus the tags open around each slot, so the literals can be parsed once
+ * and only the values need work per render.
+ */
+final class ChatTemplate {
+
+    // literals[i] comes before slots[i]; the last literal trails the last slot
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+
+    /**
+     * literals[i] re-opens the tags open before it and closes the ones left open after it;
+     * open[i] / close[i] wrap slot i in the tags around it.
+     */
+    record Markup(String[] literals, String[] open, String[] close) {}
+
+    // null when the tags can't be tracked (unbalanced or unknown self-closing tags)
+    private final Markup markup;
+
+    private ChatTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+        this.markup = splitMarkup(literals);
+    }
+
+    static ChatTemplate compile(String source, Map<String, String> constants, String... params) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+
+        String s = (source != null) ? source : "";
+        int i = 0;
+        while (i < s.length()) {
+            int open = s.indexOf('{', i);
+            int close = (open >= 0) ? s.indexOf('}', open + 1) : -1;
+            if (open < 0 || close < 0) {
+                cur.append(s, i, s.length());
+                break;
+            }
+
+            cur.append(s, i, open);
+            String name = s.substring(open + 1, close);
+
+            int param = indexOf(params, name);
+            if (param >= 0) {
+                literals.add(cur.toString());
+                slots.add(param);
+                cur.setLength(0);
+            } else if (constants.containsKey(name)) {
+                cur.append(constants.get(name));
+            } else {
+                cur.append(s, open, close + 1);
+            }
+            i = close + 1;
+        }
+        literals.add(cur.toString());
+
+        int[] slotArr = new int[slots.size()];
+        for (int k = 0; k < slotArr.length; k++) slotArr[k] = slots.get(k);
+        return new ChatTemplate(literals.toArray(new String[0]), slotArr);
+    }
+
+    boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    int slotCount() {
+        return slots.length;
+    }
+
+    /**
+     * Value of slot {@code k} (empty if missing).
+     */
+    String value(int k, String... values) {
+        int idx = slots[k];
+        return (idx < values.length && values[idx] != null) ? values[idx] : "";
+    }
+
+    @Nullable
+    Markup markup() {
+        return markup;
+    }
+
+    /**
+     * Fills the placeholders with {@code values} (by param position).
+     * With {@code tinySafe}, values are escaped for TinyMsg markup.
+     */
+    String fill(boolean tinySafe, String... values) {
+        if (slots.length == 0) return literals[0];
+
+        int len = literalLength;
+        for (String v : values) len += (v != null) ? v.length() : 0;
+
+        StringBuilder sb = new StringBuilder(len);
+        for (int k = 0; k < slots.length; k++) {
+            sb.append(literals[k]);
+
+            String v = value(k, values);
+            sb.append(tinySafe ? LGChatCompat.tinySafe(v) : v);
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    // Tracks <tag> / </tag> across the literals; values are escaped, so they never open or close tags
+    @Nullable
+    private static Markup splitMarkup(String[] literals) {
+        int n = literals.length;
+        String[] out = new String[n];
+        String[] open = new String[n - 1];
+        String[] close = new String[n - 1];
+
+        Deque<String[]> stack = new ArrayDeque<>(); // {name, full tag}
+        for (int k = 0; k < n; k++) {
+            String before = openTags(stack);
+            String l = literals[k];
+            boolean text = false;
+
+            int i = 0;
+            while (i < l.length()) {
+                int lt = l.indexOf('<', i);
+                int gt = (lt >= 0) ? l.indexOf('>', lt + 1) : -1;
+                if (lt < 0 || gt < 0) break;
+                if (lt > i) text = true;
+
+                String tag = l.substring(lt, gt + 1);
+                if (tag.startsWith("</")) {
+                    String[] top = stack.peek();
+                    if (top == null || !top[0].equals(tagName(tag, 2))) return null;
+                    stack.pop();
+                } else if (tag.endsWith("/>")) {
+                    // self-closing: nothing to track
+                } else {
+                    stack.push(new String[]{tagName(tag, 1), tag});
+                }
+                i = gt + 1;
+            }
+            if (i < l.length()) text = true;
+
+            // Tags only (e.g. the closing tail) render nothing on their own
+            String after = closeTags(stack);
+            out[k] = text ? before + l + after : "";
+            if (k < n - 1) {
+                open[k] = openTags(stack);
+                close[k] = after;
+            }
+        }
+
+        // Anything still open at the end (e.g. a void tag like <br>) can't be cut safely
+        return stack.isEmpty() ? new Markup(out, open, close) : null;
+    }
+
+    private static String tagName(String tag, int from) {
+        int end = from;
+        while (end < tag.length() && tag.charAt(end) != ':' && tag.charAt(end) != '>' && tag.charAt(end) != ' ') end++;
+        return tag.substring(from, end).toLowerCase();
+    }
+
+    // Outermost first
+    private static String openTags(Deque<String[]> stack) {
+        StringBuilder sb = new StringBuilder();
+        for (Iterator<String[]> it = stack.descendingIterator(); it.hasNext(); ) sb.append(it.next()[1]);
+        return sb.toString();
+    }
+
+    // Innermost first
+    private static String closeTags(Deque<String[]> stack) {
+        StringBuilder sb = new StringBuilder();
+        for (String[] t : stack) sb.append("</").append(t[0]).append('>');
+        return sb.toString();
+    }
+
+    private static int indexOf(String[] arr, String name) {
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i].equals(name)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Chat layouts loaded from localglobalchat.properties (falling back to the built-in defaults).
+ * Each layout has a TinyMsg markup form ({@code format.<name>}) and a plain-text form
+ * ({@code format.<name>.plain}); both are compiled once when the config is loaded.
+ *
+ * Constants usable in any layout: {globalColor}, {localColor}, {textColor}.
+ * Chat / warning layouts also get {color} and {tag} (or {mode}) of their own channel.
+ */
+final class ChatTemplates {
+
+    static final String KEY_COLOR_GLOBAL = "color.global";
+    static final String KEY_COLOR_LOCAL = "color.local";
+    static final String KEY_COLOR_TEXT = "color.text";
+    static final String KEY_TAG_GLOBAL = "tag.global";
+    static final String KEY_TAG_LOCAL = "tag.local";
+
+    static final String KEY_CHAT_GLOBAL = "format.chat.global";
+    static final String KEY_CHAT_LOCAL = "format.chat.local";
+    static final String KEY_MSG_TO = "format.msg.to";
+    static final String KEY_MSG_FROM = "format.msg.from";
+    static final String KEY_WARNING = "format.warning";
+    static final String KEY_DEBUG = "format.debug";
+
+    private static final String PLAIN = ".plain";
+
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put(KEY_COLOR_GLOBAL, "green");
+        DEFAULTS.put(KEY_COLOR_LOCAL, "yellow");
+        DEFAULTS.put(KEY_COLOR_TEXT, "white");
+        DEFAULTS.put(KEY_TAG_GLOBAL, "[G]");
+        DEFAULTS.put(KEY_TAG_LOCAL, "[L]");
+
+        String chat = "<color:{color}>{tag} {user}</color><color:{textColor}>: {msg}</color>";
+        String chatPlain = "{tag} {user}: {msg}";
+        DEFAULTS.put(KEY_CHAT_GLOBAL, chat);
+        DEFAULTS.put(KEY_CHAT_GLOBAL + PLAIN, chatPlain);
+        DEFAULTS.put(KEY_CHAT_LOCAL, chat);
+        DEFAULTS.put(KEY_CHAT_LOCAL + PLAIN, chatPlain);
+
+        DEFAULTS.put(KEY_MSG_TO,
+                "<color:light_purple>[To </color><color:yellow>{user}</color><color:light_purple>] </color><color:white>{msg}</color>");
+        DEFAULTS.put(KEY_MSG_TO + PLAIN, "[To {user}] {msg}");
+        DEFAULTS.put(KEY_MSG_FROM,
+                "<color:light_purple>[From </color><color:yellow>{user}</color><color:light_purple>] </color><color:white>{msg}</color>");
+        DEFAULTS.put(KEY_MSG_FROM + PLAIN, "[From {user}] {msg}");
+
+        // Everything orange except [Warning] (red), the current mode and the /g /l hints (channel colors)
+        DEFAULTS.put(KEY_WARNING,
+                "<color:#FFA500><color:red>[Warning]</color> You are currently in the <color:{color}>{mode}</color>"
+                        + " <color:#FFA500>chat. Remember you can switch chats at any time using </color>"
+                        + "<color:{globalColor}>/g</color> <color:{globalColor}>[ Switch to global chat ]</color> "
+                        + "<color:#FFA500>and </color>"
+                        + "<color:{localColor}>/l</color> <color:{localColor}>[ Switch to local chat ]</color></color>");
+        DEFAULTS.put(KEY_WARNING + PLAIN,
+                "[Warning] You are currently in the {mode} chat. Remember you can switch chats at any time using"
+                        + " /g [ Switch to global chat ] and /l [ Switch to local chat ]");
+
+        DEFAULTS.put(KEY_DEBUG,
+                "<color:gray>ChatDebug: {debug}</color>\n"
+                        + "Mode: <color:{modeColor}>{mode}</color>\n"
+                        + "<color:green>Global Chat: {global}</color>\n"
+                        + "<color:yellow>Local Chat: {local}</color>\n"
+                        + "<color:#ff55ff>Private messages: {msg}</color>\n"
+                        + "<color:red>ChatAdmin: {chatAdmin}</color>\n"
+                        + "<color:#1E3A8A>Admin/Op: {adminOp}</color>\n"
+                        + "<color:#7EC8FF>Warning: {warning}</color>\n"
+                        + "<color:white>Ping: {ping}</color>\n"
+                        + "<color:gray>Sessions: {sessions}</color>\n"
+                        + "<color:gray>Chat queue: {queue}</color>\n"
+                        + "<color:gray>Broadcasts: {broadcasts}</color>");
+        DEFAULTS.put(KEY_DEBUG + PLAIN,
+                "ChatDebug: {debug}\n"
+                        + "Mode: {mode}\n"
+                        + "Global Chat: {global}\n"
+                        + "Local Chat: {local}\n"
+                        + "Private messages: {msg}\n"
+                        + "ChatAdmin: {chatAdmin}\n"
+                        + "Admin/Op: {adminOp}\n"
+                        + "Warning: {warning}\n"
+                        + "Ping: {ping}\n"
+                        + "Sessions: {sessions}\n"
+                        + "Chat queue: {queue}\n"
+                        + "Broadcasts: {broadcasts}");
+    }
+
+    static final String[] CHAT_PARAMS = {"user", "msg"};
+    static final String[] DEBUG_PARAMS = {
+            "debug", "modeColor", "mode", "global", "local", "msg", "chatAdmin", "adminOp", "warning", "ping",
+            "sessions", "queue", "broadcasts"
+    };
+
+    /**
+     * Markup + plain pair. Renders through TinyMsg when available, plain text otherwise.
+     * Fully static layouts keep their rendered Message until TinyMsg availability changes.
+     * Otherwise the literal parts are parsed once (per TinyMsg generation) and joined with
+     * the values; a value is only parsed when it sits inside tags (to take their style).
+     */
+    static final class Format {
+        private final ChatTemplate tiny;
+        private final ChatTemplate plain;
+
+        private record Cached(int tinyGeneration, Message message) {}
+
+        // literals[k] is null for empty parts; broken = parse failed, fill + parse as a whole
+        private record Parsed(int tinyGeneration, Message[] literals, boolean broken) {}
+
+        private volatile Cached cached;
+        private volatile Parsed parsed;
+
+        private Format(ChatTemplate tiny, ChatTemplate plain) {
+            this.tiny = tiny;
+            this.plain = plain;
+        }
+
+        boolean isStatic() {
+            return tiny.isStatic() && plain.isStatic();
+        }
+
+        Message render(String... values) {
+            int generation = TinyMsgBridge.generation();
+
+            boolean isStatic = isStatic();
+            if (isStatic) {
+                Cached c = cached;
+                if (c != null && c.tinyGeneration() == generation) return c.message();
+            }
+
+            Message out = null;
+            if (TinyMsgBridge.isAvailable()) {
+                out = isStatic ? null : renderParts(generation, values);
+                if (out == null) out = TinyMsgBridge.parse(tiny.fill(true, values));
+            }
+            if (out == null) out = Message.raw(plain.fill(false, values));
+
+            if (isStatic) cached = new Cached(generation, out);
+            return out;
+        }
+
+        // Null = fall back to filling and parsing the whole layout
+        private Message renderParts(int generation, String... values) {
+            ChatTemplate.Markup m = tiny.markup();
+            if (m == null) return null;
+
+            Parsed p = parsed;
+            if (p == null || p.tinyGeneration() != generation) {
+                p = parseLiterals(generation, m);
+                parsed = p;
+            }
+            if (p.broken()) return null;
+
+            int slots = tiny.slotCount();
+            List<Message> parts = new ArrayList<>(2 * slots + 1);
+            for (int k = 0; k <= slots; k++) {
+                if (p.literals()[k] != null) parts.add(p.literals()[k]);
+                if (k == slots) break;
+
+                String v = tiny.value(k, values);
+                if (v.isEmpty()) continue;
+
+                if (m.open()[k].isEmpty()) {
+                    parts.add(Message.raw(v));
+                } else {
+                    Message styled = TinyMsgBridge.parse(m.open()[k] + LGChatCompat.tinySafe(v) + m.close()[k]);
+                    if (styled == null) return null;
+                    parts.add(styled);
+                }
+            }
+            return LGChatCompat.concat(parts.toArray(new Message[0]));
+        }
+
+        private static Parsed parseLiterals(int generation, ChatTemplate.Markup m) {
+            Message[] out = new Message[m.literals().length];
+            for (int k = 0; k < out.length; k++) {
+                String l = m.literals()[k];
+                if (l.isEmpty()) continue;
+
+                out[k] = TinyMsgBridge.parse(l);
+                if (out[k] == null) return new Parsed(generation, out, true);
+            }
+            return new Parsed(generation, out, false);
+        }
+    }
+
+    private final String globalColor;
+    private final String localColor;
+
+    private final Format chatGlobal;
+    private final Format chatLocal;
+    private final Format msgTo;
+    private final Format msgFrom;
+    private final Format warningGlobal;
+    private final Format warningLocal;
+    private final Format debug;
+
+    private ChatTemplates(Properties p) {
+        globalColor = get(p, KEY_COLOR_GLOBAL);
+        localColor = get(p, KEY_COLOR_LOCAL);
+
+        Map<String, String> base = new HashMap<>();
+        base.put("globalColor", globalColor);
+        base.put("localColor", localColor);
+        base.put("textColor", get(p, KEY_COLOR_TEXT));
+
+        Map<String, String> global = channel(base, globalColor, get(p, KEY_TAG_GLOBAL), "GLOBAL");
+        Map<String, String> local = channel(base, localColor, get(p, KEY_TAG_LOCAL), "LOCAL");
+
+        chatGlobal = compile(p, KEY_CHAT_GLOBAL, global, CHAT_PARAMS);
+        chatLocal = compile(p, KEY_CHAT_LOCAL, local, CHAT_PARAMS);
+        msgTo = compile(p, KEY_MSG_TO, base, CHAT_PARAMS);
+        msgFrom = compile(p, KEY_MSG_FROM, base, CHAT_PARAMS);
+        warningGlobal = compile(p, KEY_WARNING, global);
+        warningLocal = compile(p, KEY_WARNING, local);
+        debug = compile(p, KEY_DEBUG, base, DEBUG_PARAMS);
+    }
+
+    /**
+     * The layout-related keys of a config (color.*, tag.*, format.*), to tell whether a reload changed them.
+     */
+    static Map<String, String> sourceOf(Properties p) {
+        Map<String, String> out = new HashMap<>();
+        if (p == null) return out;
+        for (String k : p.stringPropertyNames()) {
+            if (k.startsWith("color.") || k.startsWith("tag.") || k.startsWith("format.")) out.put(k, p.getProperty(k));
+        }
+        return out;
+    }
+
+    static ChatTemplates defaults() {
+        return new ChatTemplates(new Properties());
+    }
+
+    static ChatTemplates load(Properties p) {
+        return new ChatTemplates(p != null ? p : new Properties());
+    }
+
+    String color(ChatMode mode) {
+        return (mode == ChatMode.GLOBAL) ? globalColor : localColor;
+    }
+
+    Format chat(ChatMode mode) {
+        return (mode == ChatMode.GLOBAL) ? chatGlobal : chatLocal;
+    }
+
+    Format warning(ChatMode mode) {
+        return (mode == ChatMode.GLOBAL) ? warningGlobal : warningLocal;
+    }
+
+    Format msgTo() {
+        return msgTo;
+    }
+
+    Format msgFrom() {
+        return msgFrom;
+    }
+
+    Format debug() {
+        return debug;
+    }
+
+    private static Map<String, String> channel(Map<String, String> base, String color, String tag, String mode) {
+        Map<String, String> out = new HashMap<>(base);
+        out.put("color", color);
+        out.put("tag", tag);
+        out.put("mode", mode);
+        return out;
+    }
+
+    private static Format compile(Properties p, String key, Map<String, String> constants, String... params) {
+        return new Format(
+                ChatTemplate.compile(get(p, key), constants, params),
+                ChatTemplate.compile(get(p, key + PLAIN), constants, params)
+        );
+    }
+
+    private static String get(Properties p, String key) {
+        String v = p.getProperty(key);
+        return (v != null && !v.isEmpty()) ? v : DEFAULTS.get(key);
+    }
+}
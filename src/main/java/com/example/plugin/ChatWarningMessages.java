@@ -0,0 +1,40 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered chat-mode warnings: one immutable Message per mode, shared by every player.
+ * Rebuilt only when the layouts are reloaded or TinyMsg availability changes, so a warning
+ * tick is just the sendMessage calls. (Keyed by mode only; add the locale to the key once
+ * warnings are localized.)
+ */
+final class ChatWarningMessages {
+
+    private record Built(ChatTemplates templates, int tinyGeneration, Map<ChatMode, Message> byMode) {}
+
+    private volatile Built built;
+
+    Map<ChatMode, Message> current(ChatTemplates templates) {
+        int generation = TinyMsgBridge.generation();
+
+        Built b = built;
+        if (b != null && b.templates() == templates && b.tinyGeneration() == generation) return b.byMode();
+
+        Map<ChatMode, Message> byMode = new EnumMap<>(ChatMode.class);
+        for (ChatMode mode : ChatMode.values()) {
+            byMode.put(mode, templates.warning(mode).render());
+        }
+
+        b = new Built(templates, generation, Collections.unmodifiableMap(byMode));
+        built = b;
+        return b.byMode();
+    }
+
+    Message get(ChatTemplates templates, ChatMode mode) {
+        return current(templates).get(mode);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Spreads the periodic chat-mode warning over the whole interval. Each player gets a fixed
+ * phase (hash of the UUID) inside the interval and is warned when the one-second wheel
+ * reaches it, instead of every player in the same instant. Players are bucketed by phase
+ * only when the player list or the interval changes, so a slot just reads its own bucket.
+ *
+ * The wheel keeps turning while warnings are disabled; changing the interval only changes
+ * the wheel size, so no task or thread is recreated.
+ */
+final class ChatWarningScheduler {
+
+    private static final long SLOT_MS = 1000L;
+
+    // Must return a new object whenever the set of players changes (the registry snapshot does)
+    private final Supplier<? extends Iterable<PlayerRef>> players;
+    private final IntSupplier intervalMinutes;
+    private final Consumer<List<PlayerRef>> warn;
+
+    private final Object lock = new Object();
+    private ScheduledFuture<?> task;
+
+    // Only touched by the slot task
+    private long tick;
+    private Iterable<PlayerRef> bucketedFrom;
+    private int bucketedPeriod;
+    private List<PlayerRef>[] buckets;
+
+    ChatWarningScheduler(Supplier<? extends Iterable<PlayerRef>> players,
+                         IntSupplier intervalMinutes,
+                         Consumer<List<PlayerRef>> warn) {
+        this.players = players;
+        this.intervalMinutes = intervalMinutes;
+        this.warn = warn;
+    }
+
+    void start(ChatScheduler scheduler) {
+        synchronized (lock) {
+            if (task != null) return;
+            task = scheduler.scheduleAtFixedRate(this::onSlot, SLOT_MS, SLOT_MS);
+        }
+    }
+
+    private void onSlot() {
+        int periodSec = Math.max(0, intervalMinutes.getAsInt()) * 60;
+        long t = tick++;
+        if (periodSec <= 0) return;
+
+        Iterable<PlayerRef> current = players.get();
+        if (current != bucketedFrom || periodSec != bucketedPeriod) {
+            buckets = bucket(current, periodSec);
+            bucketedFrom = current;
+            bucketedPeriod = periodSec;
+        }
+
+        List<PlayerRef> due = buckets[(int) (t % periodSec)];
+        if (due != null) warn.accept(due);
+    }
+
+    // Slot -> players whose phase it is (null for empty slots)
+    @SuppressWarnings("unchecked")
+    static List<PlayerRef>[] bucket(Iterable<PlayerRef> players, int periodSec) {
+        List<PlayerRef>[] out = new List[periodSec];
+        for (PlayerRef p : players) {
+            UUID u = Capabilities.uuidOf(p);
+            if (u == null) continue;
+
+            int phase = phaseOf(u, periodSec);
+            if (out[phase] == null) out[phase] = new ArrayList<>(2);
+            out[phase].add(p);
+        }
+        return out;
+    }
+
+    static int phaseOf(UUID uuid, int periodSec) {
+        // UUIDv4 bits are random already; mix anyway so sequential/offline UUIDs spread too
+        long h = uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (int) Math.floorMod(h, (long) periodSec);
+    }
+}
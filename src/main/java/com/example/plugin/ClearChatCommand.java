@@ -3,11 +3,15 @@ package com.example.plugin;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.command.system.AbstractCommand;
 import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public final class ClearChatCommand extends AbstractCommand {
@@ -17,8 +21,21 @@ public final class ClearChatCommand extends AbstractCommand {
 
     private static final int CLEAR_LINES = 120;
 
-    public ClearChatCommand() {
-        super("clearchat", "Clears the chat for all online players");
+    // The clear frame is large: spread it over ticks instead of one burst
+    private static final int PLAYERS_PER_TICK = 100;
+    private static final long TICK_MS = 50L;
+
+    private static final String USAGE = "Usage: /clearchat [global|local|<player>|player:<name>]";
+
+    // Forces the player reading (for players named "global" or "local")
+    private static final String PLAYER_PREFIX = "player:";
+
+    private final LocalGlobalChatPlugin plugin;
+    private final OptionalArg<String> scopeArg;
+
+    public ClearChatCommand(LocalGlobalChatPlugin plugin) {
+        super("clearchat", "Clears the chat (everyone, players nearby, or one player)");
+        this.plugin = plugin;
 
         // Requires permission (admin)
         LGChatCompat.requirePermissionNode(this, PERM_NODE);
@@ -28,6 +45,8 @@ public final class ClearChatCommand extends AbstractCommand {
 
         // (Optional) also tries to require a high permission level (if your build uses levels)
         trySetHighPermissionLevel(this, 4);
+
+        scopeArg = withOptionalArg("scope", "global, local, a player or player:<name>", ArgTypes.STRING);
     }
 
     @Override
@@ -46,22 +65,77 @@ public final class ClearChatCommand extends AbstractCommand {
             }
         }
 
-        Message blank = Message.raw(" ");
-        Message notice = buildNotice();
+        String scope = null;
+        try {
+            scope = scopeArg.get(context);
+        } catch (Throwable ignored) { }
+        scope = (scope == null || scope.isBlank()) ? "global" : scope.trim();
 
-        int affected = 0;
-        for (PlayerRef p : getOnlinePlayersCompat()) {
-            if (p == null) continue;
+        List<PlayerRef> targets = resolveTargets(context, scope);
+        if (targets == null) return CompletableFuture.completedFuture(null);
 
-            for (int i = 0; i < CLEAR_LINES; i++) {
-                p.sendMessage(blank);
+        // One Message for everyone: the blank lines and the notice travel in a single send
+        Message frame = buildClearFrame();
+
+        context.sender().sendMessage(Message.raw("Clearing chat (" + scope + ") for " + targets.size() + " player(s)..."));
+        plugin.broadcasts()
+                .sendPaced(targets, p -> plugin.sendTo(p, frame), PLAYERS_PER_TICK, TICK_MS)
+                .thenAccept(r -> context.sender().sendMessage(Message.raw("Chat cleared for " + r.recipients()
+                        + " player(s) in " + String.format("%.1f", r.wallMillis()) + " ms.")));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    // Null (and a reply already sent) if the scope can't be resolved
+    @Nullable
+    private List<PlayerRef> resolveTargets(CommandContext context, String scope) {
+        PlayerRegistry registry = PlayerRegistry.get();
+
+        if (scope.regionMatches(true, 0, PLAYER_PREFIX, 0, PLAYER_PREFIX.length())) {
+            return resolvePlayer(context, scope.substring(PLAYER_PREFIX.length()).trim());
+        }
+
+        if (scope.equalsIgnoreCase("global")) return registry.players();
+
+        if (scope.equalsIgnoreCase("local")) {
+            UUID self = context.sender().getUuid();
+            PlayerRef center = (self != null) ? registry.byUuid(self) : null;
+            if (center == null) {
+                context.sender().sendMessage(LGChatCompat.pinkMessage("Only players can clear local chat (it clears around you)."));
+                return null;
             }
-            p.sendMessage(notice);
-            affected++;
+            return plugin.playersNear(center);
         }
 
-        context.sender().sendMessage(Message.raw("Chat cleared for " + affected + " player(s)."));
-        return CompletableFuture.completedFuture(null);
+        return resolvePlayer(context, scope);
+    }
+
+    @Nullable
+    private List<PlayerRef> resolvePlayer(CommandContext context, String name) {
+        PlayerRegistry registry = PlayerRegistry.get();
+
+        if (name.isEmpty()) {
+            context.sender().sendMessage(LGChatCompat.pinkMessage(USAGE));
+            return null;
+        }
+
+        UsernameTrie.Match match = registry.matchOnline(name);
+        if (match.ambiguous()) {
+            context.sender().sendMessage(LGChatCompat.pinkMessage(
+                    "More than one player matches: " + String.join(", ", match.suggestions())));
+            return null;
+        }
+
+        PlayerRef target = match.found() ? registry.byUuid(match.uuid()) : null;
+        if (target == null) {
+            context.sender().sendMessage(LGChatCompat.pinkMessage("Player not found (online). " + USAGE));
+            return null;
+        }
+        return List.of(target);
+    }
+
+    private static Message buildClearFrame() {
+        Message blanks = Message.raw(" \n".repeat(CLEAR_LINES));
+        return LGChatCompat.concat(blanks, buildNotice());
     }
 
     private static Message buildNotice() {
@@ -69,30 +143,7 @@ public final class ClearChatCommand extends AbstractCommand {
 
         // Try TinyMsg (if available), otherwise fallback to raw
         String tiny = "<color:gray>" + LGChatCompat.tinySafe(text) + "</color>";
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-        return (parsed != null) ? parsed : Message.raw(text);
-    }
-
-    // ---------- Online players (compat / reflection) ----------
-    private static Iterable<PlayerRef> getOnlinePlayersCompat() {
-        try {
-            Class<?> uniCl = Class.forName("com.hypixel.hytale.server.core.universe.Universe");
-            Object uni = uniCl.getMethod("get").invoke(null);
-            if (uni == null) return java.util.List.of();
-
-            for (String mn : new String[]{"getPlayers", "players", "getOnlinePlayers", "onlinePlayers"}) {
-                try {
-                    Method m = uni.getClass().getMethod(mn);
-                    Object r = m.invoke(uni);
-                    if (r instanceof Iterable<?> it) {
-                        java.util.ArrayList<PlayerRef> out = new java.util.ArrayList<>();
-                        for (Object o : it) if (o instanceof PlayerRef pr) out.add(pr);
-                        return out;
-                    }
-                } catch (Throwable ignored) { }
-            }
-        } catch (Throwable ignored) { }
-        return java.util.List.of();
+        return TinyMsgBridge.tinyOrPlain(tiny, text);
     }
 
     // ---------- Aliases (optional) ----------
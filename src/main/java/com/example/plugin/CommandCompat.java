@@ -66,12 +66,7 @@ public final class CommandCompat {
     }
 
     public static String[] getArgsCompat(CommandContext context) {
-        Object r = invokeAny(context,
-                "args", "getArgs",
-                "arguments", "getArguments",
-                "rawArgs", "getRawArgs",
-                "parameters", "getParameters"
-        );
+        Object r = Capabilities.argsOf(context);
 
         if (r instanceof String[] sa) return sa;
 
@@ -88,13 +83,9 @@ public final class CommandCompat {
         }
 
         // fallback: try raw input
-        String raw = tryGetString(context,
-                "getRawInput", "rawInput",
-                "getInput", "input",
-                "getCommandLine", "commandLine"
-        );
+        String raw = Capabilities.rawInputOf(context);
 
-        if (raw != null) {
+        if (raw != null && !raw.isEmpty()) {
             String s = raw.trim();
             if (s.startsWith("/")) s = s.substring(1);
             // remove the command name (first word)
@@ -107,27 +98,4 @@ public final class CommandCompat {
 
         return new String[0];
     }
-
-    private static Object invokeAny(Object obj, String... methodNames) {
-        if (obj == null) return null;
-        for (String name : methodNames) {
-            try {
-                Method m = obj.getClass().getMethod(name);
-                m.setAccessible(true);
-                return m.invoke(obj);
-            } catch (Throwable ignored) { }
-        }
-        return null;
-    }
-
-    private static String tryGetString(Object obj, String... methodNames) {
-        for (String mn : methodNames) {
-            try {
-                Method m = obj.getClass().getMethod(mn);
-                Object r = m.invoke(obj);
-                if (r instanceof String s && !s.isEmpty()) return s;
-            } catch (Throwable ignored) { }
-        }
-        return null;
-    }
 }
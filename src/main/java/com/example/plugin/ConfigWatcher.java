@@ -0,0 +1,142 @@
+package com.example.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Watches the data dir for external edits of the config file. Bursts of events are
+ * debounced, the file is parsed on the scheduler, and {@code onChange} only runs when the
+ * content really changed and isn't one of our own writes.
+ */
+final class ConfigWatcher {
+
+    static final long DEBOUNCE_MS = 300L;
+
+    private final Path file;
+    private final ChatScheduler scheduler;
+    private final Predicate<byte[]> ownWrite;
+    private final Consumer<Properties> onChange;
+
+    private final Object lock = new Object();
+
+    private WatchService watch;
+    private Thread thread;
+    private ScheduledFuture<?> pending;
+
+    // Last content handed to onChange (or seen at start)
+    private byte[] lastSeen;
+
+    ConfigWatcher(Path file, ChatScheduler scheduler, Predicate<byte[]> ownWrite, Consumer<Properties> onChange) {
+        this.file = file.toAbsolutePath();
+        this.scheduler = scheduler;
+        this.ownWrite = ownWrite;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts watching. Returns false (logged) if the filesystem doesn't support it.
+     */
+    boolean start() {
+        synchronized (lock) {
+            if (thread != null) return true;
+
+            try {
+                Path dir = file.getParent();
+                Files.createDirectories(dir);
+                lastSeen = readOrNull();
+
+                watch = FileSystems.getDefault().newWatchService();
+                dir.register(watch,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (Throwable t) {
+                System.err.println("[LocalGlobalChat] Config hot-reload unavailable (WatchService failed).");
+                return false;
+            }
+
+            thread = new Thread(this::run, "LocalGlobalChat-ConfigWatcher");
+            thread.setDaemon(true);
+            thread.start();
+            return true;
+        }
+    }
+
+    void stop() {
+        synchronized (lock) {
+            if (pending != null) pending.cancel(false);
+            try {
+                if (watch != null) watch.close();
+            } catch (Throwable ignored) { }
+            watch = null;
+            thread = null;
+        }
+    }
+
+    private void run() {
+        WatchService ws = watch;
+        Path name = file.getFileName();
+
+        while (true) {
+            WatchKey key;
+            try {
+                key = ws.take();
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                return;
+            }
+
+            boolean ours = false;
+            for (WatchEvent<?> ev : key.pollEvents()) {
+                if (name.equals(ev.context())) ours = true;
+            }
+            if (ours) scheduleCheck();
+
+            if (!key.reset()) return;
+        }
+    }
+
+    private void scheduleCheck() {
+        synchronized (lock) {
+            if (pending != null) pending.cancel(false);
+            pending = scheduler.schedule(this::check, DEBOUNCE_MS);
+        }
+    }
+
+    private void check() {
+        byte[] content = readOrNull();
+        if (content == null) return;
+
+        synchronized (lock) {
+            if (Arrays.equals(content, lastSeen)) return;
+            lastSeen = content;
+        }
+        if (ownWrite.test(content)) return;
+
+        Properties p = new Properties();
+        try {
+            p.load(new ByteArrayInputStream(content));
+        } catch (Throwable t) {
+            System.err.println("[LocalGlobalChat] ERROR parsing edited config, ignored.");
+            return;
+        }
+        onChange.accept(p);
+    }
+
+    private byte[] readOrNull() {
+        try {
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        } catch (Throwable ignored) { }
+        return null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind saver for localglobalchat.properties. {@link #requestSave()} only marks the
+ * config dirty; one background write per {@link #COALESCE_MS} window picks up every change.
+ * Writes go to a temp file (fsync'd) that atomically replaces the real one, so a crash
+ * leaves either the old or the new file, never a truncated one.
+ */
+final class ConfigWriter {
+
+    static final long COALESCE_MS = 250L;
+
+    private final Path target;
+    private final String comment;
+    private final ChatScheduler scheduler;
+    private final Consumer<Properties> fill;
+
+    private final Object lock = new Object();
+
+    // Keys we don't own (kept from the last load so they survive our writes)
+    private Properties base = new Properties();
+
+    private boolean dirty;
+    private ScheduledFuture<?> pending;
+
+    // Fingerprint of the last file we wrote (lets the watcher ignore our own writes)
+    private volatile int lastWrittenHash;
+    private volatile int lastWrittenLength = -1;
+
+    /**
+     * @param fill puts the plugin's current values into the properties about to be written
+     */
+    ConfigWriter(Path target, String comment, ChatScheduler scheduler, Consumer<Properties> fill) {
+        this.target = target;
+        this.comment = comment;
+        this.scheduler = scheduler;
+        this.fill = fill;
+    }
+
+    /**
+     * True if {@code content} is exactly what the last write put on disk.
+     */
+    boolean isOwnWrite(byte[] content) {
+        return content != null && content.length == lastWrittenLength && Arrays.hashCode(content) == lastWrittenHash;
+    }
+
+    /**
+     * Remembers the file as loaded, so keys we don't manage are written back unchanged.
+     */
+    void setBase(Properties loaded) {
+        Properties copy = new Properties();
+        if (loaded != null) copy.putAll(loaded);
+        synchronized (lock) {
+            base = copy;
+        }
+    }
+
+    /**
+     * Forgets keys from the loaded file (one-shot keys that must not be written back).
+     */
+    void dropFromBase(String... keys) {
+        synchronized (lock) {
+            for (String k : keys) base.remove(k);
+        }
+    }
+
+    /**
+     * Schedules a write (coalesced with any other request in the same window). Never blocks on I/O.
+     */
+    void requestSave() {
+        synchronized (lock) {
+            dirty = true;
+            if (pending != null && !pending.isDone()) return;
+            pending = scheduler.schedule(this::flush, COALESCE_MS);
+        }
+    }
+
+    /**
+     * Writes now if anything changed since the last write (used on shutdown). Waits for a write
+     * already in progress, so on return the latest change is on disk (or its write failed).
+     */
+    void flush() {
+        // Writes are serialized on this monitor so two flushes never race on the temp file
+        synchronized (this) {
+            Properties p;
+            synchronized (lock) {
+                if (!dirty) return;
+                dirty = false;
+                if (pending != null) pending.cancel(false);
+                pending = null;
+
+                p = new Properties();
+                p.putAll(base);
+            }
+
+            try {
+                fill.accept(p);
+                write(p);
+            } catch (Throwable t) {
+                System.err.println("[LocalGlobalChat] ERROR saving config (no write permission?).");
+                // Still unsaved: the next request (or the shutdown flush) tries again
+                synchronized (lock) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    // Caller holds this
+    private void write(Properties p) throws Exception {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        p.store(out, comment);
+        byte[] bytes = out.toByteArray();
+
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+
+        // Before the move: the watcher may see the new file right away
+        lastWrittenHash = Arrays.hashCode(bytes);
+        lastWrittenLength = bytes.length;
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -34,7 +34,7 @@ public final class GCommand extends AbstractCommand {
             return CompletableFuture.completedFuture(null);
         }
 
-        plugin.setMode(uuid, ChatMode.GLOBAL);
+        plugin.switchMode(uuid, ChatMode.GLOBAL);
         context.sender().sendMessage(Message.raw("You are now in GLOBAL chat. [G]"));
         return CompletableFuture.completedFuture(null);
     }
@@ -34,7 +34,7 @@ public final class LCommand extends AbstractCommand {
             return CompletableFuture.completedFuture(null);
         }
 
-        plugin.setMode(uuid, ChatMode.LOCAL);
+        plugin.switchMode(uuid, ChatMode.LOCAL);
         context.sender().sendMessage(Message.raw(
                 "You are now in LOCAL chat (" + plugin.getLocalRadiusInt() + " blocks). [L]"
         ));
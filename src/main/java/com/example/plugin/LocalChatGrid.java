@@ -0,0 +1,126 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-world spatial hash of player positions, used to pick LOCAL chat recipients.
+ * Cells are square columns on X/Z (height is checked by the caller), and a player
+ * only changes bucket when it actually crosses a cell border.
+ */
+final class LocalChatGrid {
+
+    static final class Entry {
+        final UUID uuid;
+        volatile PlayerRef ref;
+        volatile int slot = -1; // PositionSnapshot slot
+
+        private UUID world;
+        private long cell;
+
+        private Entry(UUID uuid) {
+            this.uuid = uuid;
+        }
+    }
+
+    // world -> cell key -> players in that cell
+    private final Map<UUID, Map<Long, Set<Entry>>> worlds = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile double cellSize;
+
+    LocalChatGrid(double cellSize) {
+        this.cellSize = Math.max(1.0, cellSize);
+    }
+
+    // Re-buckets everyone (only when the local radius changes)
+    synchronized void setCellSize(double size) {
+        double next = Math.max(1.0, size);
+        if (next == cellSize) return;
+
+        cellSize = next;
+        worlds.clear();
+        for (Entry e : entries.values()) {
+            e.world = null;
+        }
+    }
+
+    synchronized void update(UUID uuid, PlayerRef ref, int slot, UUID world, double x, double z) {
+        if (uuid == null) return;
+
+        Entry e = entries.computeIfAbsent(uuid, Entry::new);
+        e.ref = ref;
+        e.slot = slot;
+
+        if (world == null) {
+            unlink(e);
+            return;
+        }
+
+        long cell = cellKey(cellOf(x), cellOf(z));
+        if (e.world != null && e.world.equals(world) && e.cell == cell) return;
+
+        unlink(e);
+        e.world = world;
+        e.cell = cell;
+        worlds.computeIfAbsent(world, w -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet())
+                .add(e);
+    }
+
+    synchronized void remove(UUID uuid) {
+        if (uuid == null) return;
+        Entry e = entries.remove(uuid);
+        if (e != null) unlink(e);
+    }
+
+    /**
+     * Visits every player bucketed in the cells overlapping the square of half-size
+     * {@code reach} around (x, z) in the given world. Candidates still need an exact check.
+     */
+    void forEachNear(UUID world, double x, double z, double reach, Consumer<Entry> action) {
+        if (world == null) return;
+
+        Map<Long, Set<Entry>> cells = worlds.get(world);
+        if (cells == null || cells.isEmpty()) return;
+
+        int minX = cellOf(x - reach), maxX = cellOf(x + reach);
+        int minZ = cellOf(z - reach), maxZ = cellOf(z + reach);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                Set<Entry> bucket = cells.get(cellKey(cx, cz));
+                if (bucket == null) continue;
+                for (Entry e : bucket) action.accept(e);
+            }
+        }
+    }
+
+    private void unlink(Entry e) {
+        if (e.world == null) return;
+
+        Map<Long, Set<Entry>> cells = worlds.get(e.world);
+        if (cells != null) {
+            Set<Entry> bucket = cells.get(e.cell);
+            if (bucket != null) {
+                bucket.remove(e);
+                if (bucket.isEmpty()) cells.remove(e.cell);
+            }
+            if (cells.isEmpty()) worlds.remove(e.world, cells);
+        }
+        e.world = null;
+    }
+
+    private int cellOf(double v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -7,15 +7,18 @@ import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 
+import javax.annotation.Nullable;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 public class LocalGlobalChatPlugin extends JavaPlugin {
@@ -25,8 +28,16 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     // =========================
     private static final String CONFIG_FILE_NAME = "localglobalchat.properties";
     private static final String PROP_LOCAL_RADIUS = "localRadius";
-    private static final String PROP_CHAT_ADMINS = "chatAdmins"; // CSV of UUIDs
+    private static final String PROP_CHAT_ADMINS = "chatAdmins"; // CSV of UUIDs (legacy; merged into the store on load)
+    private static final String PROP_CHAT_ADMINS_REMOVE = "chatAdmins.remove"; // CSV, applied once then dropped
+    private static final String CHAT_ADMINS_STORE = "chatadmins";
     private static final String PROP_CHAT_WARNING_MINUTES = "chatWarningMinutes"; // 0 = disabled
+    private static final String PROP_POSITION_SAMPLE_MS = "positionSampleMillis";
+    private static final String PROP_ASYNC_CHAT = "asyncChat"; // true = deliver chat through ChatPipeline
+    private static final String PROP_CHAT_QUEUE_LIMIT = "chatQueueLimit";
+    private static final String PROP_CHAT_QUEUE_POLICY = "chatQueuePolicy"; // drop-oldest | drop-newest
+    private static final String PROP_CHAT_QUEUE_SLOW_PING_MS = "chatQueueSlowPingMs"; // 0 = ignore ping
+    private static final String PROP_CHAT_COALESCE_MS = "chatCoalesceMillis"; // 0 = one send per line
 
     // =========================
     // Configurable local chat radius (default: 50 blocks)
@@ -34,20 +45,77 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     private static volatile double localRadius = 50.0;
     private static volatile double localRadiusSq = localRadius * localRadius;
 
-    // TinyMessage/TinyMsg (if installed on the server)
-    private static final String TINY_GLOBAL = "green";
-    private static final String TINY_LOCAL = "yellow";
-    private static final String TINY_TEXT = "white";
+    // =========================
+    // Position snapshot (sampled once per tick) + LOCAL chat spatial index
+    // =========================
+    private static final int DEFAULT_POSITION_SAMPLE_MS = 50; // one server tick at 20 TPS
+    private static final int MIN_POSITION_SAMPLE_MS = 10;
+    private static final int MAX_POSITION_SAMPLE_MS = 1000;
+    private static final double GRID_SLACK = 4.0; // grid cell vs. frame may be one sample apart
+
+    private volatile int positionSampleMillis = DEFAULT_POSITION_SAMPLE_MS;
+
+    private final PositionSnapshot positions = new PositionSnapshot();
+    private final LocalChatGrid localGrid = new LocalChatGrid(localRadius);
+
+    private final Object positionLock = new Object();
+    private ScheduledFuture<?> positionTask;
+
+    // Shared background threads (position sampling, warnings, ...)
+    private final ChatScheduler scheduler = new ChatScheduler();
+
+    // /chatadmin import|export file I/O: one transfer at a time, never on the scheduler
+    private final ExecutorService transfers = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "LocalGlobalChat-Transfer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // localglobalchat.properties writer (background, coalesced, atomic replace)
+    private volatile ConfigWriter configWriter;
+
+    // External edits of the config file (hot reload, diff-applied)
+    private ConfigWatcher configWatcher;
+
+    // Layout keys the current templates were built from
+    private volatile Map<String, String> templateSource = Collections.emptyMap();
+
+    // Online players (join/leave events + periodic reconcile against Universe)
+    private static final long REGISTRY_RECONCILE_MS = 30_000L;
+    private static final long REGISTRY_RECONCILE_NO_EVENTS_MS = 2_000L;
+
+    private final PlayerRegistry registry = PlayerRegistry.get();
+
+    // Bypass / admin-op / group decisions (short TTL, invalidated by events)
+    private final PermissionCache permissions = new PermissionCache();
+
+    // Chat layouts (format.* / color.* / tag.* keys, compiled at load)
+    private volatile ChatTemplates templates = ChatTemplates.defaults();
 
     // Warning colors
     private static final String TINY_WARN_ORANGE = "orange";
     private static final String TINY_WARN_RED = "red";
 
-    // Chat mode per player
-    private final Map<UUID, ChatMode> chatModes = new ConcurrentHashMap<>();
+    // Chat mode / debug (/chatdebug) / chat-admin bits per player, one slot each
+    private final PlayerStateTable states = new PlayerStateTable();
+
+    // Async delivery (asyncChat=true): null = chat is delivered inline by the server
+    private volatile ChatPipeline pipeline;
+    private final Object pipelineLock = new Object();
 
-    // Debug per player (toggle /chatdebug)
-    private final Map<UUID, Boolean> debugModes = new ConcurrentHashMap<>();
+    // Outbox bounds (applied to the pipeline whenever it exists)
+    private volatile int chatQueueLimit = ChatPipeline.DEFAULT_QUEUE_LIMIT;
+    private volatile ChatPipeline.DropPolicy chatQueuePolicy = ChatPipeline.DropPolicy.DROP_OLDEST;
+    private volatile int chatQueueSlowPingMs = ChatPipeline.DEFAULT_SLOW_PING_MS;
+    private volatile int chatCoalesceMillis = ChatPipeline.DEFAULT_COALESCE_MS;
+
+    // Fan-out to many players (parallel per world above a threshold)
+    // Async chat: sendTo only enqueues, so fan-out stays on the calling thread
+    private final BroadcastService broadcasts = new BroadcastService(() -> pipeline != null);
+
+    // Session state of players who left is dropped (leave event, reconcile, or idle sweep)
+    private static final long SESSION_SWEEP_MS = 60_000L;
+    private final AtomicLong evictedSessions = new AtomicLong();
 
     // =========================
     // Chat Disable
@@ -62,8 +130,8 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     private final AtomicBoolean localChatDisabled = new AtomicBoolean(false);
     private final AtomicBoolean msgDisabled = new AtomicBoolean(false);
 
-    // ChatAdmins persisted on disk (bypass + plugin admin permission)
-    private final Set<UUID> chatAdmins = ConcurrentHashMap.newKeySet();
+    // ChatAdmins persisted on disk (bypass + plugin admin permission): chatadmins.snapshot/.journal
+    private volatile UuidJournalStore chatAdmins;
 
     // =========================
     // Chat Warning (global setting)
@@ -73,8 +141,17 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
 
     private volatile int chatWarningMinutes = DEFAULT_WARNING_MINUTES;
 
-    private final Object warningLock = new Object();
-    private Timer warningTimer;
+    private final ChatWarningMessages warningMessages = new ChatWarningMessages();
+
+    // Last chat / mode switch / warning per player (skips warnings nobody needs)
+    private final PlayerActivity activity = new PlayerActivity();
+
+    // Each player is warned at its own phase of the interval (no burst at one instant)
+    private final ChatWarningScheduler warningScheduler = new ChatWarningScheduler(
+            () -> registry.players(),
+            () -> chatWarningMinutes,
+            this::sendChatWarnings
+    );
 
     public LocalGlobalChatPlugin(JavaPluginInit init) {
         super(init);
@@ -83,14 +160,25 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     @Override
     protected void setup() {
         // Load config (localRadius + chatAdmins + warning) before registering commands and before chat runs
+        configWriter = new ConfigWriter(getConfigPath(), "LocalGlobalChat config", scheduler, this::fillConfig);
+        chatAdmins = UuidJournalStore.open(getDataDirSafe(), CHAT_ADMINS_STORE, scheduler);
         loadConfigFromDisk();
+        System.out.println("[LocalGlobalChat] chatAdmins loaded: " + chatAdmins.size());
+
+        // Resolve TinyMsg once (every formatter goes through TinyMsgBridge)
+        TinyMsgBridge.probe();
+        System.out.println("[LocalGlobalChat] TinyMsg " + (TinyMsgBridge.isAvailable() ? "found." : "not found (plain text fallback)."));
+
+        // Resolve the build-specific reflection points once (see Capabilities)
+        System.out.println("[LocalGlobalChat] Capabilities: "
+                + Capabilities.probe(PlayerChatEvent.class, PlayerRef.class));
 
         getCommandRegistry().registerCommand(new GCommand(this));
         getCommandRegistry().registerCommand(new LCommand(this));
         getCommandRegistry().registerCommand(new MsgCommand(this));
         getCommandRegistry().registerCommand(new ChatDebugCommand(this));
         getCommandRegistry().registerCommand(new LocalRadiusCommand(this));
-        getCommandRegistry().registerCommand(new ClearChatCommand());
+        getCommandRegistry().registerCommand(new ClearChatCommand(this));
         getCommandRegistry().registerCommand(new ChatDisableCommand(this));
 
         // /chatwarning (alias /cw) - admin only
@@ -103,10 +191,66 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         registerEventListener(PlayerChatEvent.class, ev -> onChat((PlayerChatEvent) ev));
 
         // (Optional) try to reset to LOCAL when the player joins (if such event exists)
-        tryRegisterJoinResetToLocal();
+        boolean joinEvent = tryRegisterJoinResetToLocal();
+        boolean leaveEvent = tryRegisterLeave();
+        tryRegisterPermissionChanges();
+
+        // Seed the registry with whoever is already online, then keep it honest
+        List<PlayerRef> seed = getOnlinePlayersCompat();
+        if (seed != null) registry.reconcile(seed);
+        long reconcileMs = (joinEvent && leaveEvent) ? REGISTRY_RECONCILE_MS : REGISTRY_RECONCILE_NO_EVENTS_MS;
+        scheduler.scheduleAtFixedRate(() -> {
+            // Lookup failed: "nobody online" would be a lie, keep the registry as it is
+            List<PlayerRef> online = getOnlinePlayersCompat();
+            if (online == null) return;
+
+            // Same rule as sweepSessions: an empty list can't be told apart from a broken one,
+            // so it never wipes everyone's session at once (leave events / the sweep handle it)
+            if (online.isEmpty() && registry.size() > 0) return;
+            for (UUID gone : registry.reconcile(online)) evictSession(gone);
+        }, reconcileMs, reconcileMs);
+
+        // Fallback for state created for players the registry never saw leave
+        scheduler.scheduleAtFixedRate(this::sweepSessions, SESSION_SWEEP_MS, SESSION_SWEEP_MS);
+
+        // Start the warning wheel (reads chatWarningMinutes on every slot)
+        warningScheduler.start(scheduler);
+
+        // Sample positions every tick (feeds LOCAL chat)
+        startPositionSampler();
+
+        if (pipeline != null) System.out.println("[LocalGlobalChat] Async chat delivery enabled.");
+
+        // Pick up edits of localglobalchat.properties without a restart
+        configWatcher = new ConfigWatcher(getConfigPath(), scheduler,
+                bytes -> configWriter != null && configWriter.isOwnWrite(bytes),
+                this::onConfigEdited);
+        if (configWatcher.start()) System.out.println("[LocalGlobalChat] Watching config for changes.");
+    }
 
-        // Start / reschedule warnings
-        rescheduleChatWarningTimer();
+    @Override
+    protected void start() {
+        // TinyMessage may finish loading after our setup(): probe once more
+        if (!TinyMsgBridge.isAvailable() && TinyMsgBridge.reprobe()) {
+            System.out.println("[LocalGlobalChat] TinyMsg found after setup.");
+        }
+
+        // Universe / PermissionsModule may not exist yet during setup()
+        if (!Capabilities.complete()) {
+            System.out.println("[LocalGlobalChat] Capabilities (start): " + Capabilities.probe());
+        }
+    }
+
+    @Override
+    protected void shutdown() {
+        // Pending config changes first (the writer runs on the scheduler)
+        if (configWatcher != null) configWatcher.stop();
+        transfers.shutdownNow();
+        if (configWriter != null) configWriter.flush();
+        if (chatAdmins != null) chatAdmins.close();
+        setAsyncChat(false);
+        broadcasts.shutdown();
+        scheduler.shutdown();
     }
 
     // =========================================================
@@ -114,19 +258,61 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     // =========================================================
 
     ChatMode getMode(UUID uuid) {
-        return chatModes.getOrDefault(uuid, ChatMode.LOCAL);
+        return PlayerStateTable.mode(states.flags(uuid));
     }
 
     void setMode(UUID uuid, ChatMode mode) {
-        chatModes.put(uuid, mode);
+        states.set(uuid, PlayerStateTable.MODE_GLOBAL, mode == ChatMode.GLOBAL);
+    }
+
+    // Explicit /g or /l by the player (unlike the reset on join)
+    void switchMode(UUID uuid, ChatMode mode) {
+        setMode(uuid, mode);
+        activity.switchedMode(uuid);
     }
 
     boolean isDebug(UUID uuid) {
-        return debugModes.getOrDefault(uuid, false);
+        return PlayerStateTable.has(states.flags(uuid), PlayerStateTable.DEBUG);
     }
 
     void toggleDebug(UUID uuid) {
-        debugModes.put(uuid, !isDebug(uuid));
+        if (uuid != null) states.toggle(uuid, PlayerStateTable.DEBUG);
+    }
+
+    // =========================================================
+    // Session lifecycle (state of players who left)
+    // =========================================================
+
+    private void evictSession(UUID uuid) {
+        if (uuid == null) return;
+
+        boolean had = states.slotOf(uuid) >= 0;
+        states.release(uuid);
+        activity.forget(uuid);
+        permissions.invalidate(uuid);
+        ChatPipeline pipe = pipeline;
+        if (pipe != null) pipe.forget(uuid);
+        if (had) evictedSessions.incrementAndGet();
+    }
+
+    private void sweepSessions() {
+        // Empty registry = we can't tell who is online: keep everything
+        if (registry.size() == 0) return;
+
+        for (UUID u : new ArrayList<>(states.players())) {
+            if (!registry.isOnline(u)) evictSession(u);
+        }
+        for (UUID u : new ArrayList<>(activity.players())) {
+            if (!registry.isOnline(u)) activity.forget(u);
+        }
+    }
+
+    int liveSessionCount() {
+        return states.size();
+    }
+
+    long evictedSessionCount() {
+        return evictedSessions.get();
     }
 
     // Persist to disk
@@ -139,6 +325,62 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         return (int) Math.round(localRadius);
     }
 
+    ChatTemplates templates() {
+        return templates;
+    }
+
+    // Through the recipient's outbox when async delivery is on (keeps it ordered with chat lines)
+    void sendTo(PlayerRef to, Message msg) {
+        sendTo(to, msg, ChatPipeline.Kind.NOTICE);
+    }
+
+    void sendTo(PlayerRef to, Message msg, ChatPipeline.Kind kind) {
+        if (to == null || msg == null) return;
+
+        ChatPipeline pipe = pipeline;
+        if (pipe != null) {
+            pipe.deliver(to, msg, kind);
+            return;
+        }
+        try { to.sendMessage(msg); } catch (Throwable ignored) { }
+    }
+
+    private void applyChatQueue(int limit, ChatPipeline.DropPolicy policy, int slowPingMs) {
+        // Stored clamped, so the config file shows the limit actually in use
+        chatQueueLimit = ChatPipeline.clampQueueLimit(limit);
+        chatQueuePolicy = policy;
+        chatQueueSlowPingMs = Math.max(0, slowPingMs);
+
+        ChatPipeline pipe = pipeline;
+        if (pipe != null) pipe.configure(chatQueueLimit, chatQueuePolicy, chatQueueSlowPingMs);
+    }
+
+    private void applyChatCoalesce(int ms) {
+        chatCoalesceMillis = Math.max(0, Math.min(ChatPipeline.MAX_COALESCE_MS, ms));
+
+        ChatPipeline pipe = pipeline;
+        if (pipe != null) pipe.setCoalesceMillis(chatCoalesceMillis);
+    }
+
+    private boolean setAsyncChat(boolean on) {
+        synchronized (pipelineLock) {
+            ChatPipeline cur = pipeline;
+            if (on == (cur != null)) return false;
+
+            if (on) {
+                ChatPipeline next = new ChatPipeline(this::processChat, LocalGlobalChatPlugin::tryGetPingMillis);
+                next.configure(chatQueueLimit, chatQueuePolicy, chatQueueSlowPingMs);
+                next.setCoalesceMillis(chatCoalesceMillis);
+                pipeline = next;
+            } else {
+                // New events go inline right away; queued lines get a short grace period
+                pipeline = null;
+                cur.shutdown();
+            }
+            return true;
+        }
+    }
+
     // =========================================================
     // Chat Warning API (used by /chatwarning /cw)
     // =========================================================
@@ -150,7 +392,7 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     public void setChatWarningMinutes(int minutes) {
         chatWarningMinutes = clampWarningMinutes(minutes);
         saveConfigToDisk();
-        rescheduleChatWarningTimer();
+        // No reschedule needed: the warning wheel picks the new interval up on its next slot
     }
 
     public Message buildChatWarningConfigFeedback(int minutes) {
@@ -160,15 +402,13 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
             String tiny = "<color:" + TINY_WARN_RED + ">Chat warning has been disabled.</color>";
             String plain = "Chat warning has been disabled.";
 
-            Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-            return (parsed != null) ? parsed : Message.raw(plain);
+            return TinyMsgBridge.tinyOrPlain(tiny, plain);
         }
 
         String tiny = "<color:" + TINY_WARN_RED + ">Chat warning interval set to " + m + " minute(s).</color>";
         String plain = "Chat warning interval set to " + m + " minute(s).";
 
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-        return (parsed != null) ? parsed : Message.raw(plain);
+        return TinyMsgBridge.tinyOrPlain(tiny, plain);
     }
 
 
@@ -178,77 +418,24 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         return minutes;
     }
 
-    private void rescheduleChatWarningTimer() {
-        synchronized (warningLock) {
-            if (warningTimer != null) {
-                try { warningTimer.cancel(); } catch (Throwable ignored) { }
-                warningTimer = null;
-            }
-
-            int mins = chatWarningMinutes;
-            if (mins <= 0) return;
-
-            long periodMs = mins * 60_000L;
-
-            warningTimer = new Timer("LocalGlobalChat-WarningTimer", true);
-            warningTimer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    try {
-                        tickChatWarnings();
-                    } catch (Throwable ignored) { }
-                }
-            }, periodMs, periodMs);
-        }
-    }
-
-    private void tickChatWarnings() {
-        List<PlayerRef> players = getOnlinePlayersCompat();
+    // Called by the warning wheel with the players whose phase is due this second
+    private void sendChatWarnings(List<PlayerRef> players) {
         if (players.isEmpty()) return;
 
-        for (PlayerRef p : players) {
-            if (p == null) continue;
+        // Pre-rendered once (per mode), not per player
+        Map<ChatMode, Message> warnings = warningMessages.current(templates);
+        long intervalMs = chatWarningMinutes * 60_000L;
 
+        broadcasts.send(players, p -> {
             UUID u = safeUuid(p);
-            ChatMode mode = (u != null) ? getMode(u) : ChatMode.LOCAL;
-
-            Message warn = buildChatWarningMessage(mode);
-            try { p.sendMessage(warn); } catch (Throwable ignored) { }
-        }
-    }
+            if (!activity.shouldWarn(u, intervalMs)) return;
 
-    private Message buildChatWarningMessage(ChatMode mode) {
-        boolean isGlobal = (mode == ChatMode.GLOBAL);
-
-        String modeText  = isGlobal ? "GLOBAL" : "LOCAL";
-        String modeColor = isGlobal ? "green" : "yellow";
-
-        // ===== Colored (TinyMessage) =====
-        // Everything orange except:
-        // [Warning] red
-        // current mode colored (global=green, local=yellow)
-        // /g + [Switch to global chat] green
-        // /l + [Switch to local chat] yellow
-        String tiny =
-                "<color:#FFA500>"
-                        + "<color:red>[Warning]</color> "
-                        + "You are currently in the "
-                        + "<color:" + modeColor + ">" + LGChatCompat.tinySafe(modeText) + "</color>"
-                        + " <color:#FFA500>chat. Remember you can switch chats at any time using </color>"
-                        + "<color:green>/g</color> "
-                        + "<color:green>[ Switch to global chat ]</color> "
-                        + "<color:#FFA500>and </color>"
-                        + "<color:yellow>/l</color> "
-                        + "<color:yellow>[ Switch to local chat ]</color>"
-                        + "</color>";
-
-        // ===== No-color fallback =====
-        String plain =
-                "[Warning] You are currently in the " + modeText
-                        + " chat. Remember you can switch chats at any time using /g [ Switch to global chat ] and /l [ Switch to local chat ]";
+            ChatMode mode = (u != null) ? getMode(u) : ChatMode.LOCAL;
 
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-        return (parsed != null) ? parsed : Message.raw(plain);
+            // Joins the player's other lines of this tick when async delivery is on
+            sendTo(p, warnings.get(mode));
+            activity.warned(u);
+        });
     }
 
 
@@ -286,11 +473,15 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
             return UUID.fromString(t);
         } catch (Throwable ignored) { }
 
-        // Online username
+        // Exact online username only: this grants/revokes privileges, a prefix is never enough
         PlayerRef pr = findOnlinePlayerByUsername(t);
-        if (pr != null) return safeUuid(pr);
+        return (pr != null) ? safeUuid(pr) : null;
+    }
 
-        return null;
+    // Names a failed resolvePlayerOrUuid(token) could have meant (empty if none); shown, never applied
+    public List<String> suggestPlayerNames(String token) {
+        List<String> online = registry.complete(token, true);
+        return online.isEmpty() ? registry.complete(token, false) : online;
     }
 
     public String resolveOnlineName(UUID uuid) {
@@ -305,21 +496,44 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     public boolean addChatAdmin(UUID uuid) {
         if (uuid == null) return false;
         boolean added = chatAdmins.add(uuid);
-        if (added) saveConfigToDisk();
+        if (added) {
+            permissions.invalidate(uuid);
+            saveAdminsFallback();
+        }
+        return added;
+    }
+
+    /**
+     * Adds every UUID with a single store write. Returns how many were new.
+     */
+    public int addChatAdmins(Collection<UUID> uuids) {
+        if (uuids == null || uuids.isEmpty()) return 0;
+        int added = chatAdmins.addAll(uuids);
+        for (UUID u : uuids) permissions.invalidate(u);
+        if (added > 0) saveAdminsFallback();
         return added;
     }
 
     public boolean removeChatAdmin(UUID uuid) {
         if (uuid == null) return false;
         boolean removed = chatAdmins.remove(uuid);
-        if (removed) saveConfigToDisk();
+        if (removed) {
+            permissions.invalidate(uuid);
+            saveAdminsFallback();
+        }
         return removed;
     }
 
+    // Memory-only store: the list goes back into the config file as the legacy CSV (see fillConfig)
+    private void saveAdminsFallback() {
+        if (!chatAdmins.isDurable()) saveConfigToDisk();
+    }
+
     public Set<UUID> getChatAdminsSnapshot() {
-        return new HashSet<>(chatAdmins);
+        return new HashSet<>(chatAdmins.keys());
     }
 
+    // Persistent list (covers offline players); a lock-free map lookup
     public boolean isChatAdmin(UUID uuid) {
         return uuid != null && chatAdmins.contains(uuid);
     }
@@ -328,12 +542,54 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     // Internal radius implementation
     // =========================================================
 
-    private static void applyLocalRadius(int blocks) {
+    private void applyLocalRadius(int blocks) {
         if (blocks < 1) blocks = 1;
         if (blocks > 1000) blocks = 1000;
 
         localRadius = blocks;
         localRadiusSq = localRadius * localRadius;
+
+        // One cell per radius keeps every query at 3x3 (or 4x4 with slack) cells
+        localGrid.setCellSize(localRadius);
+    }
+
+    private static int clampPositionSampleMillis(int ms) {
+        if (ms < MIN_POSITION_SAMPLE_MS) return MIN_POSITION_SAMPLE_MS;
+        if (ms > MAX_POSITION_SAMPLE_MS) return MAX_POSITION_SAMPLE_MS;
+        return ms;
+    }
+
+    // =========================================================
+    // Position sampling (snapshot + grid maintenance)
+    // =========================================================
+
+    private void startPositionSampler() {
+        synchronized (positionLock) {
+            if (positionTask != null) return;
+            positionTask = scheduler.scheduleAtFixedRate(this::samplePositions, 0L, positionSampleMillis);
+        }
+    }
+
+    // New sampling period (hot reload)
+    private void restartPositionSampler() {
+        synchronized (positionLock) {
+            if (positionTask != null) positionTask.cancel(false);
+            positionTask = null;
+        }
+        startPositionSampler();
+    }
+
+    private void samplePositions() {
+        Set<UUID> released = new HashSet<>();
+        PositionSnapshot.Frame frame = positions.sample(registry.players(), released);
+
+        for (UUID u : released) localGrid.remove(u);
+
+        for (int slot = 0; slot < frame.capacity; slot++) {
+            if (frame.worlds[slot] < 0) continue;
+            localGrid.update(frame.uuids[slot], frame.refs[slot], slot,
+                    frame.worldUuids[slot], frame.xs[slot], frame.zs[slot]);
+        }
     }
 
     // =========================================================
@@ -349,6 +605,7 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
             try (InputStream in = Files.newInputStream(cfg)) {
                 p.load(in);
             }
+            if (configWriter != null) configWriter.setBase(p);
 
             // localRadius
             String rawRadius = p.getProperty(PROP_LOCAL_RADIUS);
@@ -362,22 +619,50 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
                 }
             }
 
-            // chatAdmins
-            chatAdmins.clear();
-            String rawAdmins = p.getProperty(PROP_CHAT_ADMINS);
-            if (rawAdmins != null && !rawAdmins.trim().isEmpty()) {
-                String[] parts = rawAdmins.split("[,;\\s]+");
-                for (String s : parts) {
-                    if (s == null) continue;
-                    String v = s.trim();
-                    if (v.isEmpty()) continue;
-                    try {
-                        chatAdmins.add(UUID.fromString(v));
-                    } catch (Throwable ignored) { }
+            // chatAdmins (legacy CSV key): merged into the store, then dropped from the file
+            int[] adminChanges = applyChatAdminKeys(p);
+            if (adminChanges[0] > 0) System.out.println("[LocalGlobalChat] chatAdmins migrated from config: " + adminChanges[0]);
+            permissions.invalidateAll();
+
+            // Chat layouts (missing keys keep the built-in defaults)
+            templates = ChatTemplates.load(p);
+            templateSource = ChatTemplates.sourceOf(p);
+
+            // positionSampleMillis
+            String rawSample = p.getProperty(PROP_POSITION_SAMPLE_MS);
+            if (rawSample != null && !rawSample.trim().isEmpty()) {
+                try {
+                    positionSampleMillis = clampPositionSampleMillis(Integer.parseInt(rawSample.trim()));
+                } catch (Throwable ignored) {
+                    positionSampleMillis = DEFAULT_POSITION_SAMPLE_MS;
+                    System.err.println("[LocalGlobalChat] ERROR parsing positionSampleMillis. Using default " + DEFAULT_POSITION_SAMPLE_MS + ".");
                 }
             }
 
-            System.out.println("[LocalGlobalChat] chatAdmins loaded: " + chatAdmins.size());
+            // chatQueueLimit / chatQueuePolicy / chatQueueSlowPingMs (before the pipeline starts)
+            Integer queueLimit = parseIntOrNull(p.getProperty(PROP_CHAT_QUEUE_LIMIT));
+            ChatPipeline.DropPolicy queuePolicy = ChatPipeline.DropPolicy.parse(p.getProperty(PROP_CHAT_QUEUE_POLICY));
+            Integer slowPing = parseIntOrNull(p.getProperty(PROP_CHAT_QUEUE_SLOW_PING_MS));
+            if (p.getProperty(PROP_CHAT_QUEUE_POLICY) != null && queuePolicy == null) {
+                System.err.println("[LocalGlobalChat] ERROR parsing chatQueuePolicy. Using drop-oldest.");
+            }
+            applyChatQueue(queueLimit != null ? queueLimit : chatQueueLimit,
+                    queuePolicy != null ? queuePolicy : chatQueuePolicy,
+                    slowPing != null ? slowPing : chatQueueSlowPingMs);
+            if (queueLimit != null && queueLimit != chatQueueLimit) {
+                System.err.println("[LocalGlobalChat] chatQueueLimit " + queueLimit + " out of range. Using " + chatQueueLimit + ".");
+                saveConfigToDisk();
+            }
+
+            // chatCoalesceMillis
+            Integer coalesce = parseIntOrNull(p.getProperty(PROP_CHAT_COALESCE_MS));
+            if (coalesce != null) applyChatCoalesce(coalesce);
+
+            // asyncChat
+            String rawAsync = p.getProperty(PROP_ASYNC_CHAT);
+            if (rawAsync != null && !rawAsync.trim().isEmpty()) {
+                setAsyncChat(Boolean.parseBoolean(rawAsync.trim()));
+            }
 
             // chatWarningMinutes
             String rawWarn = p.getProperty(PROP_CHAT_WARNING_MINUTES);
@@ -397,44 +682,204 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         }
     }
 
-    private void saveConfigToDisk() {
-        try {
-            Path cfg = getConfigPath();
-            Files.createDirectories(cfg.getParent());
+    /**
+     * chatAdmins= (add) and chatAdmins.remove= (remove) are one-shot keys: applied to the store,
+     * then dropped from the file. Returns {added, removed}.
+     */
+    private int[] applyChatAdminKeys(Properties p) {
+        String rawAdd = p.getProperty(PROP_CHAT_ADMINS);
+        String rawRemove = p.getProperty(PROP_CHAT_ADMINS_REMOVE);
+        if (rawAdd == null && rawRemove == null) return new int[]{0, 0};
 
-            Properties p = new Properties();
+        // One journal write for the whole list
+        int added = addChatAdmins(parseUuidCsv(rawAdd));
 
-            // Preserve other keys
-            if (Files.exists(cfg)) {
-                try (InputStream in = Files.newInputStream(cfg)) {
-                    p.load(in);
-                } catch (Throwable ignored) { }
-            }
+        // The CSV is dropped on the next save: make sure what it held is on disk (snapshot + fsync) first
+        if (added > 0) chatAdmins.compact();
 
-            p.setProperty(PROP_LOCAL_RADIUS, String.valueOf(getLocalRadiusInt()));
+        int removed = 0;
+        for (UUID u : parseUuidCsv(rawRemove)) {
+            if (removeChatAdmin(u)) removed++;
+        }
 
-            // Save chatAdmins as CSV
-            if (chatAdmins.isEmpty()) {
-                p.remove(PROP_CHAT_ADMINS);
-            } else {
-                StringBuilder sb = new StringBuilder();
-                for (UUID u : chatAdmins) {
-                    if (u == null) continue;
-                    if (sb.length() > 0) sb.append(",");
-                    sb.append(u);
-                }
-                p.setProperty(PROP_CHAT_ADMINS, sb.toString());
+        // Applied: never run them again (fillConfig decides whether the CSV comes back)
+        ConfigWriter w = configWriter;
+        if (w != null) w.dropFromBase(PROP_CHAT_ADMINS, PROP_CHAT_ADMINS_REMOVE);
+
+        saveConfigToDisk();
+        return new int[]{added, removed};
+    }
+
+    private static List<UUID> parseUuidCsv(String raw) {
+        List<UUID> out = new ArrayList<>();
+        if (raw == null) return out;
+
+        for (String s : raw.split("[,;\\s]+")) {
+            if (s == null) continue;
+            String v = s.trim();
+            if (v.isEmpty()) continue;
+            try {
+                out.add(UUID.fromString(v));
+            } catch (Throwable ignored) { }
+        }
+        return out;
+    }
+
+    // =========================================================
+    // Hot reload (external edits, applied as a diff)
+    // =========================================================
+
+    private void onConfigEdited(Properties p) {
+        List<String> changes = new ArrayList<>();
+
+        ConfigWriter w = configWriter;
+        if (w != null) w.setBase(p);
+
+        Integer radius = parseIntOrNull(p.getProperty(PROP_LOCAL_RADIUS));
+        if (radius != null) {
+            int before = getLocalRadiusInt();
+            int next = Math.max(1, Math.min(1000, radius));
+            if (next != before) {
+                applyLocalRadius(next);
+                changes.add("localRadius " + before + " -> " + next);
             }
+        }
 
-            // Save warning minutes
-            p.setProperty(PROP_CHAT_WARNING_MINUTES, String.valueOf(Math.max(0, chatWarningMinutes)));
+        Integer minutes = parseIntOrNull(p.getProperty(PROP_CHAT_WARNING_MINUTES));
+        if (minutes != null) {
+            int before = chatWarningMinutes;
+            int next = clampWarningMinutes(minutes);
+            if (next != before) {
+                // The warning wheel reads the interval on every slot: no reschedule needed
+                chatWarningMinutes = next;
+                changes.add("chatWarningMinutes " + before + " -> " + next);
+            }
+        }
 
-            try (OutputStream out = Files.newOutputStream(cfg)) {
-                p.store(out, "LocalGlobalChat config");
+        Integer sampleMs = parseIntOrNull(p.getProperty(PROP_POSITION_SAMPLE_MS));
+        if (sampleMs != null) {
+            int before = positionSampleMillis;
+            int next = clampPositionSampleMillis(sampleMs);
+            if (next != before) {
+                positionSampleMillis = next;
+                restartPositionSampler();
+                changes.add("positionSampleMillis " + before + " -> " + next);
             }
-        } catch (Throwable t) {
-            System.err.println("[LocalGlobalChat] ERROR saving config (no write permission?).");
         }
+
+        Integer queueLimit = parseIntOrNull(p.getProperty(PROP_CHAT_QUEUE_LIMIT));
+        ChatPipeline.DropPolicy queuePolicy = ChatPipeline.DropPolicy.parse(p.getProperty(PROP_CHAT_QUEUE_POLICY));
+        Integer slowPing = parseIntOrNull(p.getProperty(PROP_CHAT_QUEUE_SLOW_PING_MS));
+        int nextLimit = (queueLimit != null) ? ChatPipeline.clampQueueLimit(queueLimit) : chatQueueLimit;
+        ChatPipeline.DropPolicy nextPolicy = (queuePolicy != null) ? queuePolicy : chatQueuePolicy;
+        int nextSlow = (slowPing != null) ? Math.max(0, slowPing) : chatQueueSlowPingMs;
+        if (nextLimit != chatQueueLimit || nextPolicy != chatQueuePolicy || nextSlow != chatQueueSlowPingMs) {
+            applyChatQueue(nextLimit, nextPolicy, nextSlow);
+            changes.add("chat queue " + nextLimit + "/" + nextPolicy.key() + "/" + nextSlow + "ms");
+        }
+        // Out of range: write the clamped value back so the file matches what runs
+        if (queueLimit != null && queueLimit != nextLimit) saveConfigToDisk();
+
+        Integer coalesce = parseIntOrNull(p.getProperty(PROP_CHAT_COALESCE_MS));
+        if (coalesce != null) {
+            int before = chatCoalesceMillis;
+            applyChatCoalesce(coalesce);
+            if (chatCoalesceMillis != before) changes.add("chatCoalesceMillis " + before + " -> " + chatCoalesceMillis);
+        }
+
+        String rawAsync = p.getProperty(PROP_ASYNC_CHAT);
+        if (rawAsync != null && !rawAsync.trim().isEmpty()) {
+            boolean next = Boolean.parseBoolean(rawAsync.trim());
+            if (setAsyncChat(next)) changes.add("asyncChat -> " + next);
+        }
+
+        int[] admins = applyChatAdminKeys(p);
+        if (admins[0] > 0) changes.add("+" + admins[0] + " chatAdmin(s)");
+        if (admins[1] > 0) changes.add("-" + admins[1] + " chatAdmin(s)");
+
+        Map<String, String> source = ChatTemplates.sourceOf(p);
+        if (!source.equals(templateSource)) {
+            templates = ChatTemplates.load(p);
+            templateSource = source;
+            changes.add("chat layouts");
+        }
+
+        System.out.println("[LocalGlobalChat] Config edited on disk: "
+                + (changes.isEmpty() ? "nothing to apply." : String.join(", ", changes)));
+    }
+
+    private static Integer parseIntOrNull(String raw) {
+        if (raw == null || raw.trim().isEmpty()) return null;
+        try {
+            return Integer.parseInt(raw.trim());
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    // Write-behind: never blocks the calling (command) thread on disk I/O
+    private void saveConfigToDisk() {
+        ConfigWriter w = configWriter;
+        if (w != null) w.requestSave();
+    }
+
+    // Our keys, written over the ones loaded from disk (other keys are preserved)
+    private void fillConfig(Properties p) {
+        p.setProperty(PROP_LOCAL_RADIUS, String.valueOf(getLocalRadiusInt()));
+
+        // chatAdmins live in their own store; the CSV is only written while that store can't reach disk
+        UuidJournalStore admins = chatAdmins;
+        if (admins != null && !admins.isDurable()) {
+            List<String> csv = new ArrayList<>();
+            for (UUID u : admins.keys()) csv.add(u.toString());
+            p.setProperty(PROP_CHAT_ADMINS, String.join(",", csv));
+        } else {
+            p.remove(PROP_CHAT_ADMINS);
+        }
+        p.remove(PROP_CHAT_ADMINS_REMOVE);
+
+        // Save warning minutes
+        p.setProperty(PROP_CHAT_WARNING_MINUTES, String.valueOf(Math.max(0, chatWarningMinutes)));
+
+        p.setProperty(PROP_POSITION_SAMPLE_MS, String.valueOf(positionSampleMillis));
+
+        p.setProperty(PROP_ASYNC_CHAT, String.valueOf(pipeline != null));
+        p.setProperty(PROP_CHAT_QUEUE_LIMIT, String.valueOf(chatQueueLimit));
+        p.setProperty(PROP_CHAT_QUEUE_POLICY, chatQueuePolicy.key());
+        p.setProperty(PROP_CHAT_QUEUE_SLOW_PING_MS, String.valueOf(chatQueueSlowPingMs));
+        p.setProperty(PROP_CHAT_COALESCE_MS, String.valueOf(chatCoalesceMillis));
+    }
+
+    /**
+     * A file directly inside the data dir (for /chatadmin import|export), or null if the name
+     * is absolute, leaves the data dir, or points at one of our own files.
+     */
+    public Path resolveDataFile(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+
+        try {
+            Path dir = getDataDirSafe().toAbsolutePath().normalize();
+            Path rel = Paths.get(name.trim());
+            if (rel.isAbsolute() || rel.getRoot() != null || rel.getNameCount() != 1) return null;
+
+            Path file = dir.resolve(rel).normalize();
+            if (!dir.equals(file.getParent())) return null;
+
+            String fn = file.getFileName().toString();
+            if (fn.equals("..") || fn.equals(".")) return null;
+            if (fn.startsWith(CONFIG_FILE_NAME) || fn.startsWith(CHAT_ADMINS_STORE + ".")) return null;
+            return file;
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    // Off the command/world thread, on the shared scheduler (short tasks only)
+    public void runAsync(Runnable task) {
+        scheduler.execute(task);
+    }
+
+    // Bulk file reads/writes: on the transfer thread, so a large file never stalls the scheduler
+    public void runTransfer(Runnable task) {
+        transfers.execute(task);
     }
 
     private Path getConfigPath() {
@@ -546,7 +991,7 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     // (Optional) reset to LOCAL on join (if an event exists)
     // =========================================================
 
-    private void tryRegisterJoinResetToLocal() {
+    private boolean tryRegisterJoinResetToLocal() {
         String[] candidates = new String[] {
                 "com.hypixel.hytale.server.core.event.events.player.PlayerJoinEvent",
                 "com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent",
@@ -561,17 +1006,96 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
                 Consumer<Object> handler = ev -> {
                     PlayerRef p = extractPlayerRef(ev);
                     UUID u = safeUuid(p);
-                    if (u != null) setMode(u, ChatMode.LOCAL);
+                    if (u != null) {
+                        setMode(u, ChatMode.LOCAL);
+                        registry.add(p);
+                        permissions.invalidate(u);
+                    }
                 };
 
                 if (tryRegister(getEventRegistry(), joinEventClass, handler)) {
                     System.out.println("[LocalGlobalChat] JoinEvent registered: " + cn);
-                    return;
+                    return true;
                 }
             } catch (Throwable ignored) { }
         }
 
         System.out.println("[LocalGlobalChat] JoinEvent not found (ok). Default LOCAL still works.");
+        return false;
+    }
+
+    // =========================================================
+    // (Optional) leave/disconnect event (keeps PlayerRegistry exact)
+    // =========================================================
+
+    private boolean tryRegisterLeave() {
+        String[] candidates = new String[] {
+                "com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent",
+                "com.hypixel.hytale.server.core.event.events.player.PlayerQuitEvent",
+                "com.hypixel.hytale.server.core.event.events.player.PlayerLeaveEvent",
+                "com.hypixel.hytale.server.core.event.events.player.PlayerLogoutEvent"
+        };
+
+        for (String cn : candidates) {
+            try {
+                Class<?> leaveEventClass = Class.forName(cn);
+
+                Consumer<Object> handler = ev -> {
+                    UUID u = safeUuid(extractPlayerRef(ev));
+                    if (u != null) {
+                        registry.remove(u);
+                        evictSession(u);
+                    }
+                };
+
+                if (tryRegister(getEventRegistry(), leaveEventClass, handler)) {
+                    System.out.println("[LocalGlobalChat] LeaveEvent registered: " + cn);
+                    return true;
+                }
+            } catch (Throwable ignored) { }
+        }
+
+        System.out.println("[LocalGlobalChat] LeaveEvent not found (ok). Online list is reconciled every "
+                + (REGISTRY_RECONCILE_NO_EVENTS_MS / 1000) + "s instead.");
+        return false;
+    }
+
+    // =========================================================
+    // (Optional) permission/group change events (drop cached decisions)
+    // =========================================================
+
+    private void tryRegisterPermissionChanges() {
+        String[] candidates = new String[] {
+                "com.hypixel.hytale.server.core.event.events.permissions.PlayerPermissionChangeEvent",
+                "com.hypixel.hytale.server.core.event.events.permissions.PlayerGroupEvent",
+                "com.hypixel.hytale.server.core.event.events.permissions.GroupPermissionChangeEvent",
+                "com.hypixel.hytale.server.core.permissions.event.PermissionChangeEvent",
+                "com.hypixel.hytale.server.core.permissions.event.PlayerGroupChangeEvent"
+        };
+
+        int registered = 0;
+        for (String cn : candidates) {
+            try {
+                Class<?> eventClass = Class.forName(cn);
+
+                // Player-scoped events drop that player; group-wide ones drop everyone
+                Consumer<Object> handler = ev -> {
+                    UUID u = extractUuidCompat(ev);
+                    if (u != null) permissions.invalidate(u);
+                    else permissions.invalidateAll();
+                };
+
+                if (tryRegister(getEventRegistry(), eventClass, handler)) {
+                    System.out.println("[LocalGlobalChat] Permission event registered: " + cn);
+                    registered++;
+                }
+            } catch (Throwable ignored) { }
+        }
+
+        if (registered == 0) {
+            System.out.println("[LocalGlobalChat] Permission events not found (ok). Cached decisions expire after "
+                    + (PermissionCache.TTL_MS / 1000) + "s.");
+        }
     }
 
     private static PlayerRef extractPlayerRef(Object event) {
@@ -593,50 +1117,171 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     private void onChat(PlayerChatEvent event) {
         PlayerRef sender = event.getSender();
         UUID senderUuid = safeUuid(sender);
-        ChatMode mode = (senderUuid != null) ? getMode(senderUuid) : ChatMode.LOCAL;
+
+        // One state read per event (mode + debug bits)
+        long state = states.flags(senderUuid);
+        ChatMode mode = PlayerStateTable.mode(state);
+
+        activity.chatted(senderUuid);
+
+        // Chatting proves they're online (covers joins the registry hasn't heard of yet)
+        if (senderUuid != null && !registry.isOnline(senderUuid)) registry.add(sender);
 
         boolean disabledGlobal = globalChatDisabled.get();
         boolean disabledLocal = localChatDisabled.get();
         boolean bypass = canBypassChatDisabled(sender);
         boolean disabledForMode = (mode == ChatMode.GLOBAL) ? disabledGlobal : disabledLocal;
+        boolean debug = senderUuid != null && PlayerStateTable.has(state, PlayerStateTable.DEBUG);
 
-        // Debug even when blocked
-        if (senderUuid != null && isDebug(senderUuid)) {
-            sender.sendMessage(buildChatDebugMessage(sender, senderUuid, true));
-        }
-
-        // If chat is disabled for this mode and the player has NO bypass -> block
+        // If chat is disabled for this mode and the player has NO bypass -> block (debug even when blocked)
         if (disabledForMode && !bypass) {
+            if (debug) sendTo(sender, buildChatDebugMessage(sender, senderUuid, true));
             try { event.getTargets().clear(); } catch (Throwable ignored) { }
-            cancelEventCompat(event);
+            Capabilities.cancel(event);
             String msg = (mode == ChatMode.GLOBAL)
                     ? "Global chat is currently disabled."
                     : "Local chat is currently disabled.";
-            sender.sendMessage(systemColor("red", msg));
+            sendTo(sender, systemColor("red", msg));
             return;
         }
 
-        event.setFormatter((ignoredViewer, message) -> formatChat(mode, sender.getUsername(), message));
+        // Async: capture what the stages need and let the pipeline deliver it
+        ChatPipeline pipe = pipeline;
+        if (pipe != null) {
+            submitChat(pipe, event, sender, senderUuid, mode, debug);
+            return;
+        }
+
+        if (debug) sender.sendMessage(buildChatDebugMessage(sender, senderUuid, true));
+
+        // Rendered once per event, shared by every viewer
+        String senderName = sender.getUsername();
+        ChatTemplates.Format layout = templates.chat(mode);
+        SharedChatFormatter formatter = new SharedChatFormatter(message -> layout.render(senderName, message));
+        event.setFormatter(formatter::format);
 
-        // Local: filter targets by distance
+        // Local: recipients come from the grid cells around the sender, distances from the snapshot
         if (mode == ChatMode.LOCAL) {
             UUID senderWorld = sender.getWorldUuid();
+            PositionSnapshot.Frame frame = positions.current();
 
-            double x0 = getX(sender);
-            double y0 = getY(sender);
-            double z0 = getZ(sender);
+            double[] pos = new double[3];
+            readSenderPosition(frame, sender, senderUuid, pos);
+
+            Set<UUID> recipients = findLocalRecipients(frame, senderWorld, pos[0], pos[1], pos[2]);
+            if (senderUuid != null) recipients.add(senderUuid);
 
             event.getTargets().removeIf(target -> {
-                if (target == null) return true;
-                if (!Objects.equals(senderWorld, target.getWorldUuid())) return true;
+                UUID u = safeUuid(target);
+                return u == null || !recipients.contains(u);
+            });
+        }
+    }
 
-                double dx = getX(target) - x0;
-                double dy = getY(target) - y0;
-                double dz = getZ(target) - z0;
+    private void readSenderPosition(PositionSnapshot.Frame frame, PlayerRef sender, UUID senderUuid, double[] out) {
+        int slot = positions.slotOf(frame, senderUuid);
+        if (slot >= 0) {
+            out[0] = frame.xs[slot];
+            out[1] = frame.ys[slot];
+            out[2] = frame.zs[slot];
+            return;
+        }
 
-                return (dx * dx + dy * dy + dz * dz) > localRadiusSq;
-            });
+        // Joined after the last sample
+        PositionAccessor.read(sender, out);
+    }
+
+    // Event thread: snapshot + enqueue only; the server delivers nothing itself
+    private void submitChat(ChatPipeline pipe, PlayerChatEvent event, PlayerRef sender, UUID senderUuid,
+                            ChatMode mode, boolean debug) {
+        List<PlayerRef> targets = new ArrayList<>(event.getTargets());
+        String text = event.getContent();
+
+        try { event.getTargets().clear(); } catch (Throwable ignored) { }
+        Capabilities.cancel(event);
+
+        UUID world = null;
+        double[] pos = new double[3];
+        if (mode == ChatMode.LOCAL) {
+            world = sender.getWorldUuid();
+            readSenderPosition(positions.current(), sender, senderUuid, pos);
+        }
+
+        pipe.submit(new ChatPipeline.Snapshot(sender, senderUuid, sender.getUsername(), mode, debug,
+                text, world, pos[0], pos[1], pos[2], targets));
+    }
+
+    // Pipeline intake stage: resolve recipients, render once, queue per recipient
+    private void processChat(ChatPipeline.Snapshot s) {
+        if (s.debug()) sendTo(s.sender(), buildChatDebugMessage(s.sender(), s.senderUuid(), true));
+
+        Message line = templates.chat(s.mode()).render(s.senderName(), s.text());
+        ChatPipeline.Kind kind = ChatPipeline.Kind.of(s.mode());
+
+        Set<UUID> near = null;
+        if (s.mode() == ChatMode.LOCAL) {
+            near = findLocalRecipients(positions.current(), s.world(), s.x(), s.y(), s.z());
+            if (s.senderUuid() != null) near.add(s.senderUuid());
+        }
+
+        for (PlayerRef target : s.targets()) {
+            if (near != null) {
+                UUID u = safeUuid(target);
+                if (u == null || !near.contains(u)) continue;
+            }
+            sendTo(target, line, kind);
+        }
+    }
+
+    // Online players within the local chat radius of center (center included)
+    List<PlayerRef> playersNear(PlayerRef center) {
+        UUID cu = safeUuid(center);
+        PositionSnapshot.Frame frame = positions.current();
+
+        double[] pos = new double[3];
+        readSenderPosition(frame, center, cu, pos);
+
+        Set<UUID> near = findLocalRecipients(frame, center.getWorldUuid(), pos[0], pos[1], pos[2]);
+        if (cu != null) near.add(cu);
+
+        List<PlayerRef> out = new ArrayList<>(near.size());
+        for (UUID u : near) {
+            PlayerRef p = registry.byUuid(u);
+            if (p != null) out.add(p);
+        }
+        return out;
+    }
+
+    private Set<UUID> findLocalRecipients(PositionSnapshot.Frame frame, UUID world, double x0, double y0, double z0) {
+        Set<UUID> out = new HashSet<>();
+        int worldId = positions.worldId(world);
+        if (worldId < 0) return out;
+
+        // 1) Candidate slots from the grid cells around the sender (same world only).
+        // Sized for the neighbourhood, not the whole frame; grows if the area is crowded
+        int[][] slots = {new int[16]};
+        int[] count = {0};
+        localGrid.forEachNear(world, x0, z0, localRadius + GRID_SLACK, entry -> {
+            int slot = entry.slot;
+            if (!frame.holds(slot, entry.uuid) || frame.worlds[slot] != worldId) return;
+            if (count[0] == slots[0].length) slots[0] = Arrays.copyOf(slots[0], count[0] * 2);
+            slots[0][count[0]++] = slot;
+        });
+
+        // 2) Exact distance pass over the packed arrays
+        long[] mask = LocalRecipientFilter.filter(frame.xs, frame.ys, frame.zs, slots[0], count[0],
+                x0, y0, z0, localRadiusSq);
+
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0L) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                out.add(frame.uuids[slots[0][i]]);
+                bits &= bits - 1;
+            }
         }
+
+        return out;
     }
 
     // Safe toggles without updateAndGet
@@ -681,7 +1326,6 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         boolean isAdminOp = isAdminOrOp(sender);
 
         String modeText = (mode == ChatMode.GLOBAL) ? "GLOBAL" : "LOCAL";
-        String modeColor = (mode == ChatMode.GLOBAL) ? "green" : "yellow";
 
         String globalStatus = globalDisabled ? "DISABLED" : "ENABLED";
         String localStatus = localDisabled ? "DISABLED" : "ENABLED";
@@ -693,30 +1337,36 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         Integer pingMs = tryGetPingMillis(sender);
         String pingText = (pingMs != null) ? (pingMs + " ms") : "N/A";
 
-        String tiny =
-                "<color:gray>ChatDebug: " + (debugEnabled ? "ON" : "OFF") + "</color>\n" +
-                "Mode: <color:" + modeColor + ">" + modeText + "</color>\n" +
-                "<color:green>Global Chat: " + globalStatus + "</color>\n" +
-                "<color:yellow>Local Chat: " + localStatus + "</color>\n" +
-                "<color:#ff55ff>Private messages: " + msgStatus + "</color>\n" +
-                "<color:red>ChatAdmin: " + (isChatAdmin ? "YES" : "NO") + "</color>\n" +
-                "<color:#1E3A8A>Admin/Op: " + (isAdminOp ? "YES" : "NO") + "</color>\n" +
-                "<color:#7EC8FF>Warning: " + warningText + "</color>\n" +
-                "<color:white>Ping: " + pingText + "</color>";
-
-        String plain =
-                "ChatDebug: " + (debugEnabled ? "ON" : "OFF") + "\n" +
-                "Mode: " + modeText + "\n" +
-                "Global Chat: " + globalStatus + "\n" +
-                "Local Chat: " + localStatus + "\n" +
-                "Private messages: " + msgStatus + "\n" +
-                "ChatAdmin: " + (isChatAdmin ? "YES" : "NO") + "\n" +
-                "Admin/Op: " + (isAdminOp ? "YES" : "NO") + "\n" +
-                "Warning: " + warningText + "\n" +
-                "Ping: " + pingText;
-
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-        return (parsed != null) ? parsed : Message.raw(plain);
+        String sessionsText = liveSessionCount() + " live, " + evictedSessionCount() + " evicted";
+
+        ChatPipeline pipe = pipeline;
+        String queueText = (pipe == null) ? "inline (asyncChat=false)"
+                : pipe.pendingFor(senderUuid) + " pending, " + pipe.droppedFor(senderUuid) + " dropped"
+                + " (all players: " + pipe.outboxCount() + " queues, " + pipe.droppedCount() + " dropped, "
+                + pipe.deliveredCount() + " lines in " + pipe.packetCount() + " sends)";
+
+        BroadcastService.Result last = broadcasts.lastResult();
+        String broadcastsText = broadcasts.broadcastCount() + " sent"
+                + ((last == null) ? ""
+                : ", last: " + last.recipients() + " player(s) in " + last.chunks() + " chunk(s), "
+                + String.format("%.1f", last.wallMillis()) + " ms");
+
+        // Layout: format.debug (order = ChatTemplates.DEBUG_PARAMS)
+        return templates.debug().render(
+                debugEnabled ? "ON" : "OFF",
+                templates.color(mode),
+                modeText,
+                globalStatus,
+                localStatus,
+                msgStatus,
+                isChatAdmin ? "YES" : "NO",
+                isAdminOp ? "YES" : "NO",
+                warningText,
+                pingText,
+                sessionsText,
+                queueText,
+                broadcastsText
+        );
     }
 
     private static boolean toggleAtomic(AtomicBoolean ref) {
@@ -727,129 +1377,52 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         }
     }
 
+    // Decisions are cached per player (PermissionCache): the chat path is one map read
     boolean canBypassChatDisabled(Object sender) {
         UUID u = extractUuidCompat(sender);
-        PlayerRef pr = extractPlayerRefCompat(sender);
-        if (u == null && pr != null) u = safeUuid(pr);
-
-        // Disk bypass (chatAdmins)
-        if (u != null && isChatAdmin(u)) return true;
-
-        // Try admin/op on PlayerRef (if available)
-        if (pr != null) {
-            if (isAdminLevelCompat(pr) || isUniverseOpCompat(pr)) return true;
-        }
-
-        // Last chance: boolean methods on sender itself
-        if (hasTrueBooleanMethod(sender,
-                "isAdmin", "isOperator", "isOp", "isUniverseOperator", "isUniverseOp")) {
-            return true;
-        }
-
-        return false;
+        return permissions.bypass(u, () -> computeBypass(sender, u));
     }
 
     boolean isAdminOrOp(Object sender) {
-        PlayerRef pr = extractPlayerRefCompat(sender);
         UUID u = extractUuidCompat(sender);
-        if (pr == null) {
-            if (u != null) pr = findOnlinePlayerByUuid(u);
-            if (pr == null && u != null && (isUniverseOpCompat(u) || isInAdminGroup(u))) return true;
-        }
-
-        if (pr != null && (isAdminLevelCompat(pr) || isUniverseOpCompat(pr))) return true;
-        if (u != null && isInAdminGroup(u)) return true;
-
-        return hasTrueBooleanMethod(sender,
-                "isAdmin", "isOperator", "isOp", "isUniverseOperator", "isUniverseOp");
+        return permissions.adminOp(u, () -> computeAdminOrOp(sender, u));
     }
 
     boolean canBypassChatDisabled(PlayerRef p) {
         UUID u = safeUuid(p);
-
-        // Disk bypass (chatAdmins)
-        if (u != null && isChatAdmin(u)) return true;
-
-        // Try op/admin via reflection
-        return isAdminLevelCompat(p) || isUniverseOpCompat(p);
+        return permissions.bypass(u, () -> computeBypass(p, u));
     }
 
-    private boolean isAdminLevelCompat(PlayerRef p) {
-        if (p == null) return false;
+    private boolean computeBypass(Object sender, UUID u) {
+        PlayerRef pr = extractPlayerRefCompat(sender);
 
-        for (String mn : new String[]{"isAdmin", "isOperator", "isOp"}) {
-            try {
-                Method m = p.getClass().getMethod(mn);
-                Object r = m.invoke(p);
-                if (r instanceof Boolean b) return b;
-            } catch (Throwable ignored) { }
-        }
+        // Disk bypass (chatAdmins)
+        if (u != null && isChatAdmin(u)) return true;
 
-        for (String mn : new String[]{"getPermissionLevel", "getOpLevel", "getOperatorLevel"}) {
-            try {
-                Method m = p.getClass().getMethod(mn);
-                Object r = m.invoke(p);
-                if (r instanceof Number n) return n.intValue() >= 2;
-            } catch (Throwable ignored) { }
+        // Try admin/op on PlayerRef (if available)
+        if (pr != null) {
+            if (Capabilities.isAdminLevel(pr) || Capabilities.isUniverseOperator(pr)) return true;
         }
 
-        return false;
+        // Last chance: boolean methods on sender itself
+        return Capabilities.isOperator(sender);
     }
 
-    private boolean isUniverseOpCompat(PlayerRef p) {
-        if (p == null) return false;
-
-        // Some builds expose it directly on PlayerRef
-        for (String mn : new String[]{"isUniverseOperator", "isUniverseOp", "isOperator"}) {
-            try {
-                Method m = p.getClass().getMethod(mn);
-                Object r = m.invoke(p);
-                if (r instanceof Boolean b) return b;
-            } catch (Throwable ignored) { }
+    private boolean computeAdminOrOp(Object sender, UUID u) {
+        PlayerRef pr = extractPlayerRefCompat(sender);
+        if (pr == null) {
+            if (u != null) pr = findOnlinePlayerByUuid(u);
+            if (pr == null && u != null && (Capabilities.universeOperator(u) || isInAdminGroup(u))) return true;
         }
 
-        // Fallback: try Universe.get().isOperator(uuid) or similar
-        try {
-            UUID u = safeUuid(p);
-            if (u == null) return false;
-
-            Class<?> uniCl = Class.forName("com.hypixel.hytale.server.core.universe.Universe");
-            Object uni = uniCl.getMethod("get").invoke(null);
-            if (uni == null) return false;
-
-            for (String mn : new String[]{"isOperator", "isOp", "isPlayerOperator", "isUniverseOperator"}) {
-                try {
-                    Method m = uni.getClass().getMethod(mn, UUID.class);
-                    Object r = m.invoke(uni, u);
-                    if (r instanceof Boolean b) return b;
-                } catch (Throwable ignored) { }
-            }
-        } catch (Throwable ignored) { }
-
-        return false;
-    }
-
-    private boolean isUniverseOpCompat(UUID uuid) {
-        if (uuid == null) return false;
-        try {
-            Class<?> uniCl = Class.forName("com.hypixel.hytale.server.core.universe.Universe");
-            Object uni = uniCl.getMethod("get").invoke(null);
-            if (uni == null) return false;
-
-            for (String mn : new String[]{"isOperator", "isOp", "isPlayerOperator", "isUniverseOperator"}) {
-                try {
-                    Method m = uni.getClass().getMethod(mn, UUID.class);
-                    Object r = m.invoke(uni, uuid);
-                    if (r instanceof Boolean b) return b;
-                } catch (Throwable ignored) { }
-            }
-        } catch (Throwable ignored) { }
+        if (pr != null && (Capabilities.isAdminLevel(pr) || Capabilities.isUniverseOperator(pr))) return true;
+        if (u != null && isInAdminGroup(u)) return true;
 
-        return false;
+        return Capabilities.isOperator(sender);
     }
 
-    private static boolean isInAdminGroup(UUID uuid) {
-        Set<String> groups = getUserGroupsCompat(uuid);
+    private boolean isInAdminGroup(UUID uuid) {
+        Set<String> groups = permissions.groups(uuid, () -> Capabilities.groups(uuid));
         if (groups.isEmpty()) return false;
 
         for (String g : groups) {
@@ -860,157 +1433,37 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
         return false;
     }
 
-    private static Set<String> getUserGroupsCompat(UUID uuid) {
-        if (uuid == null) return Collections.emptySet();
-
-        try {
-            Class<?> pmCl = Class.forName("com.hypixel.hytale.server.core.permissions.PermissionsModule");
-            Object pm = pmCl.getMethod("get").invoke(null);
-            if (pm == null) return Collections.emptySet();
-
-            for (String mn : new String[]{"getGroupsForUser", "getGroupsOfUser", "getUserGroups", "getGroupsByUser"}) {
-                try {
-                    Method m = pm.getClass().getMethod(mn, UUID.class);
-                    Object r = m.invoke(pm, uuid);
-                    return toStringSet(r);
-                } catch (Throwable ignored) { }
-            }
-        } catch (Throwable ignored) { }
-
-        return Collections.emptySet();
-    }
-
-    private static Set<String> toStringSet(Object src) {
-        if (src == null) return Collections.emptySet();
-
-        Set<String> out = new HashSet<>();
-        if (src instanceof Iterable<?> it) {
-            for (Object o : it) if (o != null) out.add(String.valueOf(o));
-            return out;
-        }
-        if (src instanceof Object[] arr) {
-            for (Object o : arr) if (o != null) out.add(String.valueOf(o));
-            return out;
-        }
-        out.add(String.valueOf(src));
-        return out;
-    }
-
     void broadcastSystemMessage(Message msg) {
         broadcastCompat(msg);
     }
 
+    BroadcastService broadcasts() {
+        return broadcasts;
+    }
+
     // Colored message (TinyMsg if available; fallback = plain RAW with NO colors)
     static Message systemColor(String tinyColor, String text) {
         String safe = LGChatCompat.tinySafe(text);
         String tiny = "<color:" + tinyColor + ">" + safe + "</color>";
 
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
+        Message parsed = TinyMsgBridge.parse(tiny);
         if (parsed != null) return parsed;
 
         // No TinyMessage: no colors
         return Message.raw(text);
     }
 
-    // Broadcast compatible via reflection (Universe / player list)
-    private static void broadcastCompat(Message msg) {
-        try {
-            Class<?> uniCl = Class.forName("com.hypixel.hytale.server.core.universe.Universe");
-            Object uni = uniCl.getMethod("get").invoke(null);
-            if (uni == null) return;
-
-            for (String mn : new String[]{"broadcastMessage", "broadcast", "sendMessageToAll", "broadcastToAll"}) {
-                try {
-                    Method m = uni.getClass().getMethod(mn, Message.class);
-                    m.invoke(uni, msg);
-                    return;
-                } catch (Throwable ignored) { }
-            }
-
-            for (String mn : new String[]{"getPlayers", "players", "getOnlinePlayers", "onlinePlayers"}) {
-                try {
-                    Method m = uni.getClass().getMethod(mn);
-                    Object r = m.invoke(uni);
-                    if (r instanceof Iterable<?> it) {
-                        for (Object o : it) {
-                            if (o instanceof PlayerRef p) {
-                                p.sendMessage(msg);
-                            }
-                        }
-                    }
-                    return;
-                } catch (Throwable ignored) { }
-            }
-        } catch (Throwable ignored) { }
-    }
-
-    // Cancel event via reflection (compat across builds)
-    private static void cancelEventCompat(Object event) {
-        if (event == null) return;
-
-        for (String mn : new String[]{"setCancelled", "setCanceled", "setCanceledFlag"}) {
-            try {
-                Method m = event.getClass().getMethod(mn, boolean.class);
-                m.invoke(event, true);
-                return;
-            } catch (Throwable ignored) { }
-        }
-
-        try {
-            Method m = event.getClass().getMethod("cancel");
-            m.invoke(event);
-        } catch (Throwable ignored) { }
-    }
-
-    private static Message formatChat(ChatMode mode, String username, String msg) {
-        String tag = (mode == ChatMode.LOCAL) ? "[L] " : "[G] ";
-        String col = (mode == ChatMode.LOCAL) ? TINY_LOCAL : TINY_GLOBAL;
-
-        String safeUser = LGChatCompat.tinySafe(username);
-        String safeMsg  = LGChatCompat.tinySafe(msg);
-
-        String tiny =
-                "<color:" + col + ">" + tag + safeUser + "</color>" +
-                        "<color:" + TINY_TEXT + ">: " + safeMsg + "</color>";
+    // Server broadcast if this build has one, otherwise every registered player
+    private void broadcastCompat(Message msg) {
+        if (Capabilities.broadcast(msg)) return;
 
-        String plain = tag + username + ": " + msg;
-
-        Message parsed = LGChatCompat.tryTinyMsgParse(tiny);
-        return (parsed != null) ? parsed : Message.raw(plain);
+        broadcasts.send(registry.players(), p -> sendTo(p, msg));
     }
 
     // =========================================================
-    // Position (reflection to support different builds)
+    // Reflection helper (positions go through PositionAccessor)
     // =========================================================
 
-    private static double getX(PlayerRef p) { return getAxis(p, "x"); }
-    private static double getY(PlayerRef p) { return getAxis(p, "y"); }
-    private static double getZ(PlayerRef p) { return getAxis(p, "z"); }
-
-    private static double getAxis(PlayerRef p, String axis) {
-        try {
-            Object transform = p.getTransform();
-
-            Object pos = invokeAny(transform,
-                    "getPosition", "position",
-                    "getTranslation", "translation",
-                    "getLocation", "location"
-            );
-
-            Object base = (pos != null) ? pos : transform;
-
-            Object value = invokeAny(base,
-                    "get" + axis.toUpperCase(), axis
-            );
-
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue();
-            }
-        } catch (Throwable ignored) { }
-
-        return 0.0;
-    }
-
     private static Object invokeAny(Object obj, String... methodNames) {
         if (obj == null) return null;
         for (String name : methodNames) {
@@ -1028,136 +1481,58 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
     // =========================================================
 
     private static Object extractSender(CommandContext context) {
-        if (context == null) return null;
-        try {
-            Method senderM = context.getClass().getMethod("sender");
-            return senderM.invoke(context);
-        } catch (Throwable ignored) { }
-        try {
-            Method senderM = context.getClass().getMethod("getSender");
-            return senderM.invoke(context);
-        } catch (Throwable ignored) { }
-        return null;
+        return Capabilities.sender(context);
     }
 
     private static PlayerRef extractPlayerRefCompat(Object sender) {
-        if (sender instanceof PlayerRef pr) return pr;
-        if (sender == null) return null;
-
-        for (String mn : new String[]{"getPlayerRef", "getPlayer", "player", "asPlayer", "getSender", "sender"}) {
-            try {
-                Method m = sender.getClass().getMethod(mn);
-                Object r = m.invoke(sender);
-                if (r instanceof PlayerRef pr) return pr;
-            } catch (Throwable ignored) { }
-        }
-        return null;
+        return Capabilities.playerRefOf(sender);
     }
 
     private static UUID extractUuidCompat(Object sender) {
         if (sender == null) return null;
-        if (sender instanceof PlayerRef pr) return safeUuid(pr);
 
-        for (String mn : new String[]{"getUuid", "uuid", "getUniqueId", "uniqueId"}) {
-            try {
-                Method m = sender.getClass().getMethod(mn);
-                Object r = m.invoke(sender);
-                if (r instanceof UUID u) return u;
-            } catch (Throwable ignored) { }
-        }
+        UUID u = Capabilities.uuidOf(sender);
+        if (u != null) return u;
 
         PlayerRef pr = extractPlayerRefCompat(sender);
         return (pr != null) ? safeUuid(pr) : null;
     }
 
     private static Integer tryGetPingMillis(Object sender) {
-        Integer v = tryGetPingFromObject(sender);
+        Integer v = Capabilities.ping(sender);
         if (v != null) return v;
 
         PlayerRef pr = extractPlayerRefCompat(sender);
         if (pr != null) {
-            v = tryGetPingFromObject(pr);
+            v = Capabilities.ping(pr);
             if (v != null) return v;
 
-            Object packet = invokeAny(pr, "getPacketHandler", "packetHandler");
-            v = tryGetPingFromObject(packet);
+            v = Capabilities.ping(Capabilities.packetHandler(pr));
             if (v != null) return v;
         }
 
         return null;
     }
 
-    private static Integer tryGetPingFromObject(Object obj) {
-        if (obj == null) return null;
-
-        for (String mn : new String[]{
-                "getPing", "ping",
-                "getLatency", "latency",
-                "getLatencyMs", "latencyMs",
-                "getRtt", "rtt",
-                "getRoundTripTime", "roundTripTime"
-        }) {
-            try {
-                Method m = obj.getClass().getMethod(mn);
-                Object r = m.invoke(obj);
-                if (r instanceof Number n) return n.intValue();
-                if (r instanceof String s) {
-                    try { return Integer.parseInt(s.trim()); } catch (Throwable ignored) { }
-                }
-            } catch (Throwable ignored) { }
-        }
-
-        return null;
-    }
-
-    private static boolean hasTrueBooleanMethod(Object obj, String... names) {
-        if (obj == null) return false;
-        for (String mn : names) {
-            try {
-                Method m = obj.getClass().getMethod(mn);
-                Object r = m.invoke(obj);
-                if (r instanceof Boolean b && b) return true;
-            } catch (Throwable ignored) { }
-        }
-        return false;
-    }
-
     private static UUID safeUuid(PlayerRef p) {
-        try {
-            return p != null ? p.getUuid() : null;
-        } catch (Throwable ignored) { }
-        return null;
+        return Capabilities.uuidOf(p);
     }
 
     private static PlayerRef findOnlinePlayerByUsername(String username) {
-        if (username == null) return null;
-        String u = username.trim();
-        if (u.isEmpty()) return null;
-
-        for (PlayerRef p : getOnlinePlayersCompat()) {
-            try {
-                if (p != null && p.getUsername() != null && p.getUsername().equalsIgnoreCase(u)) return p;
-            } catch (Throwable ignored) { }
-        }
-        return null;
+        return PlayerRegistry.get().byName(username);
     }
 
     private static PlayerRef findOnlinePlayerByUuid(UUID uuid) {
-        if (uuid == null) return null;
-
-        for (PlayerRef p : getOnlinePlayersCompat()) {
-            try {
-                if (p != null && uuid.equals(p.getUuid())) return p;
-            } catch (Throwable ignored) { }
-        }
-        return null;
+        return PlayerRegistry.get().byUuid(uuid);
     }
 
+    // Universe query: only used to seed/reconcile PlayerRegistry. Null if the list can't be read.
+    @Nullable
     private static List<PlayerRef> getOnlinePlayersCompat() {
         try {
             Class<?> uniCl = Class.forName("com.hypixel.hytale.server.core.universe.Universe");
             Object uni = uniCl.getMethod("get").invoke(null);
-            if (uni == null) return Collections.emptyList();
+            if (uni == null) return null;
 
             for (String mn : new String[]{"getPlayers", "players", "getOnlinePlayers", "onlinePlayers"}) {
                 try {
@@ -1171,6 +1546,6 @@ public class LocalGlobalChatPlugin extends JavaPlugin {
                 } catch (Throwable ignored) { }
             }
         } catch (Throwable ignored) { }
-        return Collections.emptyList();
+        return null;
     }
 }
@@ -0,0 +1,58 @@
+package com.example.plugin;
+
+/**
+ * Squared-distance pass for LOCAL chat over the packed coordinate arrays of a
+ * {@link PositionSnapshot.Frame}. Produces a bitmask over the candidate list:
+ * bit {@code i} is set when candidate {@code slots[i]} is within the radius.
+ *
+ * Uses {@link VectorDistanceKernel} when {@code jdk.incubator.vector} is enabled on the
+ * server JVM, otherwise a plain scalar loop (same results).
+ */
+final class LocalRecipientFilter {
+
+    private LocalRecipientFilter() {}
+
+    private static final boolean VECTOR = detectVectorSupport();
+
+    static long[] filter(double[] xs, double[] ys, double[] zs, int[] slots, int count,
+                         double x0, double y0, double z0, double radiusSq) {
+        long[] mask = new long[(count + 63) >>> 6];
+        if (count <= 0) return mask;
+
+        if (VECTOR) {
+            VectorDistanceKernel.filter(xs, ys, zs, slots, count, x0, y0, z0, radiusSq, mask);
+        } else {
+            scalar(xs, ys, zs, slots, 0, count, x0, y0, z0, radiusSq, mask);
+        }
+        return mask;
+    }
+
+    // Also used for the vector tail
+    static void scalar(double[] xs, double[] ys, double[] zs, int[] slots, int from, int count,
+                       double x0, double y0, double z0, double radiusSq, long[] mask) {
+        for (int i = from; i < count; i++) {
+            int s = slots[i];
+            double dx = xs[s] - x0;
+            double dy = ys[s] - y0;
+            double dz = zs[s] - z0;
+
+            if ((dx * dx + dy * dy + dz * dz) <= radiusSq) mask[i >>> 6] |= 1L << (i & 63);
+        }
+    }
+
+    private static boolean detectVectorSupport() {
+        try {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                System.out.println("[LocalGlobalChat] Vector API not enabled (--add-modules jdk.incubator.vector). Using scalar local chat filter.");
+                return false;
+            }
+
+            // Force class loading/linking now instead of failing on the first chat message
+            System.out.println("[LocalGlobalChat] Vector API enabled. Local chat filter lanes: " + VectorDistanceKernel.lanes());
+            return true;
+        } catch (Throwable t) {
+            System.out.println("[LocalGlobalChat] Vector API unavailable (" + t.getClass().getSimpleName() + "). Using scalar local chat filter.");
+            return false;
+        }
+    }
+}
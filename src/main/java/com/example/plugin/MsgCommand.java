@@ -12,6 +12,7 @@ import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
@@ -20,7 +21,7 @@ import java.util.concurrent.CompletableFuture;
 public final class MsgCommand extends AbstractCommand {
 
     private final LocalGlobalChatPlugin plugin;
-    private final RequiredArg<PlayerRef> targetArg;
+    private final RequiredArg<String> targetArg;
     private final RequiredArg<String> messageArg;
 
     public MsgCommand(LocalGlobalChatPlugin plugin) {
@@ -29,7 +30,9 @@ public final class MsgCommand extends AbstractCommand {
 
         LGChatCompat.relaxCommandPermissions(this);
 
-        targetArg = withRequiredArg("player", "Target player", ArgTypes.PLAYER_REF);
+        // Plain string: PLAYER_REF would reject partial names before execute() runs,
+        // so the target is resolved here through PlayerRegistry's trie instead
+        targetArg = withRequiredArg("player", "Target player", ArgTypes.STRING);
 
         // 1) Try to find a “greedy/rest-of-line” ArgType inside ArgTypes
         Object bestMsgType = findGreedyLikeTextArgType();
@@ -61,7 +64,7 @@ public final class MsgCommand extends AbstractCommand {
         UUID senderUuid = context.sender().getUuid();
         if (senderUuid == null) {
             // With TinyMessage -> colored, without -> plain
-            context.sender().sendMessage(tinyOrPlain(
+            context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
                     "<color:light_purple>This command can only be used by players.</color>",
                     "This command can only be used by players."
             ));
@@ -69,16 +72,38 @@ public final class MsgCommand extends AbstractCommand {
         }
 
         if (plugin.isMsgDisabled() && !plugin.canBypassChatDisabled(context.sender())) {
-            context.sender().sendMessage(tinyOrPlain(
+            context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
                     "<color:red>Private messages are currently disabled.</color>",
                     "Private messages are currently disabled."
             ));
             return CompletableFuture.completedFuture(null);
         }
 
-        PlayerRef target = context.get(targetArg);
+        String raw = getInputStringCompat(context);
+
+        String token = null;
+        try {
+            token = context.get(targetArg);
+        } catch (Throwable ignored) { }
+        if (token == null || token.isBlank()) token = extractTargetToken(raw);
+
+        // Exact name or unique prefix of an online player
+        UsernameTrie.Match match = PlayerRegistry.get().matchOnline(token);
+        PlayerRef target = match.found() ? PlayerRegistry.get().byUuid(match.uuid()) : null;
+
         if (target == null || target.getUuid() == null) {
-            context.sender().sendMessage(tinyOrPlain(
+            List<String> names = (token != null) ? plugin.suggestPlayerNames(token) : List.of();
+            if (!names.isEmpty()) {
+                String lead = match.ambiguous() ? "More than one player matches: " : "Player not found (online). Did you mean: ";
+                String joined = String.join(", ", names);
+                context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
+                        "<color:light_purple>" + lead + "</color><color:yellow>" + LGChatCompat.tinySafe(joined) + "</color>",
+                        lead + joined
+                ));
+                return CompletableFuture.completedFuture(null);
+            }
+
+            context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
                     "<color:light_purple>Player not found (online).</color>",
                     "Player not found (online)."
             ));
@@ -86,7 +111,7 @@ public final class MsgCommand extends AbstractCommand {
         }
 
         if (Objects.equals(senderUuid, target.getUuid())) {
-            context.sender().sendMessage(tinyOrPlain(
+            context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
                     "<color:light_purple>You can't send /msg to yourself.</color>",
                     "You can't send /msg to yourself."
             ));
@@ -95,7 +120,6 @@ public final class MsgCommand extends AbstractCommand {
 
         // FULL preference: get the raw remainder of the command line
         // (works even if the parser only consumes one word)
-        String raw = getInputStringCompat(context);
         String remainder = extractRemainder(raw);
 
         String msg;
@@ -107,7 +131,7 @@ public final class MsgCommand extends AbstractCommand {
         }
 
         if (msg == null || msg.trim().isEmpty()) {
-            context.sender().sendMessage(tinyOrPlain(
+            context.sender().sendMessage(TinyMsgBridge.tinyOrPlain(
                     "<color:light_purple>Usage: /msg <player> <message...></color>",
                     "Usage: /msg <player> <message...>"
             ));
@@ -116,34 +140,19 @@ public final class MsgCommand extends AbstractCommand {
 
         String senderName = LGChatCompat.resolveSenderUsername(context.sender(), senderUuid);
 
-        // Safe for TinyMessage (escape < > etc.)
-        String safeTarget = LGChatCompat.tinySafe(target.getUsername());
-        String safeSender = LGChatCompat.tinySafe(senderName);
-        String safeMsg    = LGChatCompat.tinySafe(msg);
+        // Layouts format.msg.to / format.msg.from (values are escaped for TinyMessage)
+        ChatTemplates templates = plugin.templates();
+        Message echo = templates.msgTo().render(target.getUsername(), msg);
 
-        context.sender().sendMessage(tinyOrPlain(
-                "<color:light_purple>[To </color><color:yellow>" + safeTarget + "</color><color:light_purple>] </color>"
-                        + "<color:white>" + safeMsg + "</color>",
-                "[To " + target.getUsername() + "] " + msg
-        ));
-
-        target.sendMessage(tinyOrPlain(
-                "<color:light_purple>[From </color><color:yellow>" + safeSender + "</color><color:light_purple>] </color>"
-                        + "<color:white>" + safeMsg + "</color>",
-                "[From " + senderName + "] " + msg
-        ));
+        // Via the outboxes when async delivery is on (ordered with chat lines)
+        PlayerRef self = PlayerRegistry.get().byUuid(senderUuid);
+        if (self != null) plugin.sendTo(self, echo, ChatPipeline.Kind.PRIVATE);
+        else context.sender().sendMessage(echo);
+        plugin.sendTo(target, templates.msgFrom().render(senderName, msg), ChatPipeline.Kind.PRIVATE);
 
         return CompletableFuture.completedFuture(null);
     }
 
-    // ------------------------------------------------------------
-    //  Helper: With TinyMessage -> parsed, without -> plain raw
-    // ------------------------------------------------------------
-    private static Message tinyOrPlain(String tinyMarkup, String plainText) {
-        Message parsed = LGChatCompat.tryTinyMsgParse(tinyMarkup);
-        return (parsed != null) ? parsed : Message.raw(plainText);
-    }
-
     // ------------------------------------------------------------
     //  A) Robust fallback: extract "<message...>" from raw input
     // ------------------------------------------------------------
@@ -162,18 +171,21 @@ public final class MsgCommand extends AbstractCommand {
         return parts[2];
     }
 
+    // "<cmd> <player> ..." -> "<player>"
     @Nullable
-    private static String getInputStringCompat(CommandContext context) {
-        if (context == null) return null;
+    private static String extractTargetToken(String input) {
+        if (input == null) return null;
 
-        for (String mn : new String[]{"getInputString","getInput","input","getRaw","raw","getCommandLine","commandLine"}) {
-            try {
-                Method m = context.getClass().getMethod(mn);
-                Object r = m.invoke(context);
-                if (r instanceof String s) return s;
-            } catch (Throwable ignored) { }
-        }
-        return null;
+        String s = input.trim();
+        if (s.startsWith("/")) s = s.substring(1);
+
+        String[] parts = s.split("\\s+", 3);
+        return (parts.length >= 2) ? parts[1] : null;
+    }
+
+    @Nullable
+    private static String getInputStringCompat(CommandContext context) {
+        return Capabilities.rawInputOf(context);
     }
 
     // ------------------------------------------------------------
@@ -0,0 +1,91 @@
+package com.example.plugin;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived per-player permission decisions (chat bypass, admin/op, groups).
+ * Each decision is computed on first use and kept for {@link #TTL_MS}, or until
+ * {@link #invalidate(UUID)} / {@link #invalidateAll()} is called.
+ */
+final class PermissionCache {
+
+    static final long TTL_MS = 10_000L;
+
+    // 0 = not computed yet, 1 = false, 2 = true
+    private static final class Entry {
+        final long expiresAt;
+        volatile byte bypass;
+        volatile byte adminOp;
+        volatile Set<String> groups;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    boolean bypass(UUID uuid, BooleanSupplier compute) {
+        if (uuid == null) return compute.getAsBoolean();
+
+        Entry e = entryOf(uuid);
+        byte v = e.bypass;
+        if (v == 0) {
+            v = compute.getAsBoolean() ? (byte) 2 : (byte) 1;
+            e.bypass = v;
+        }
+        return v == 2;
+    }
+
+    boolean adminOp(UUID uuid, BooleanSupplier compute) {
+        if (uuid == null) return compute.getAsBoolean();
+
+        Entry e = entryOf(uuid);
+        byte v = e.adminOp;
+        if (v == 0) {
+            v = compute.getAsBoolean() ? (byte) 2 : (byte) 1;
+            e.adminOp = v;
+        }
+        return v == 2;
+    }
+
+    Set<String> groups(UUID uuid, Supplier<Set<String>> compute) {
+        if (uuid == null) return compute.get();
+
+        Entry e = entryOf(uuid);
+        Set<String> g = e.groups;
+        if (g == null) {
+            g = Set.copyOf(compute.get());
+            e.groups = g;
+        }
+        return g;
+    }
+
+    void invalidate(UUID uuid) {
+        if (uuid != null) entries.remove(uuid);
+    }
+
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    private Entry entryOf(UUID uuid) {
+        long now = System.currentTimeMillis();
+
+        Entry e = entries.get(uuid);
+        if (e != null && now < e.expiresAt) return e;
+
+        Entry fresh = new Entry(now + TTL_MS);
+        if (e == null) {
+            Entry raced = entries.putIfAbsent(uuid, fresh);
+            return (raced != null && now < raced.expiresAt) ? raced : fresh;
+        }
+        entries.replace(uuid, e, fresh);
+        return fresh;
+    }
+}
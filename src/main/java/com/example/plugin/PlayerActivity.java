@@ -0,0 +1,82 @@
+package com.example.plugin;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lock-free per-player timestamps (last chat, last /g or /l, last chat-mode warning),
+ * used to skip warnings for players that don't need them right now.
+ */
+final class PlayerActivity {
+
+    // Someone who chatted this recently is mid-conversation: don't interrupt...
+    private static final long RECENT_CHAT_MS = 30_000L;
+
+    // ...more than this many warnings in a row (someone who never stops chatting still needs it)
+    static final int MAX_BUSY_SKIPS = 1;
+
+    private static final class Stamps {
+        volatile long lastChat;
+        volatile long lastSwitch;
+        volatile long lastWarned;
+        volatile int busySkips;
+    }
+
+    private final Map<UUID, Stamps> stamps = new ConcurrentHashMap<>();
+
+    void chatted(UUID uuid) {
+        if (uuid != null) stampsOf(uuid).lastChat = System.currentTimeMillis();
+    }
+
+    void switchedMode(UUID uuid) {
+        if (uuid != null) stampsOf(uuid).lastSwitch = System.currentTimeMillis();
+    }
+
+    void warned(UUID uuid) {
+        if (uuid == null) return;
+        Stamps s = stampsOf(uuid);
+        s.lastWarned = System.currentTimeMillis();
+        s.busySkips = 0;
+    }
+
+    void forget(UUID uuid) {
+        if (uuid != null) stamps.remove(uuid);
+    }
+
+    /**
+     * Live view of the players that have timestamps.
+     */
+    Set<UUID> players() {
+        return stamps.keySet();
+    }
+
+    /**
+     * False when the player switched mode within the interval (they just picked it),
+     * hasn't chatted since the previous warning (AFK/silent), or chatted in the last few
+     * seconds (at most {@value #MAX_BUSY_SKIPS} warning(s) in a row are skipped for that).
+     * The first warning of a session is always sent. Called once per player per warning tick.
+     */
+    boolean shouldWarn(UUID uuid, long intervalMs) {
+        if (uuid == null) return true;
+
+        Stamps s = stamps.get(uuid);
+        if (s == null) return true;
+
+        long now = System.currentTimeMillis();
+        if (s.lastSwitch != 0L && now - s.lastSwitch < intervalMs) return false;
+        if (s.lastWarned != 0L && s.lastChat <= s.lastWarned) return false;
+
+        if (s.lastChat != 0L && now - s.lastChat < RECENT_CHAT_MS && s.busySkips < MAX_BUSY_SKIPS) {
+            s.busySkips++;
+            return false;
+        }
+
+        return true;
+    }
+
+    private Stamps stampsOf(UUID uuid) {
+        return stamps.computeIfAbsent(uuid, u -> new Stamps());
+    }
+}
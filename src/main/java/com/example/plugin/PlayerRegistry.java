@@ -0,0 +1,207 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online players, fed by join/leave events (and reconciled against Universe from time to
+ * time, for builds where those events can't be found). UUID and username lookups are O(1);
+ * iteration goes through an immutable snapshot rebuilt only when someone joins or leaves.
+ * Names are also indexed in a {@link UsernameTrie}, which keeps the last
+ * {@value #RECENT_NAMES} players who left so they can still be resolved by (partial) name.
+ */
+final class PlayerRegistry {
+
+    private static final PlayerRegistry INSTANCE = new PlayerRegistry();
+
+    static PlayerRegistry get() {
+        return INSTANCE;
+    }
+
+    private final Map<UUID, PlayerRef> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, PlayerRef> byName = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> joinedAt = new ConcurrentHashMap<>();
+
+    private volatile List<PlayerRef> snapshot = Collections.emptyList();
+
+    // A join event can beat the Universe list: reconcile leaves fresh joins alone this long
+    static final long JOIN_GRACE_MS = 10_000L;
+
+    static final int RECENT_NAMES = 256;
+    static final int SUGGESTIONS = 8;
+
+    private final UsernameTrie names = new UsernameTrie();
+
+    // Players who left (oldest first); guarded by this
+    private final LinkedHashMap<UUID, String> recent = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+            if (size() <= RECENT_NAMES) return false;
+            names.removeOffline(eldest.getValue(), eldest.getKey());
+            return true;
+        }
+    };
+
+    private PlayerRegistry() {}
+
+    /**
+     * Returns true if the player was not registered yet (or was registered with another PlayerRef).
+     */
+    boolean add(PlayerRef p) {
+        UUID u = Capabilities.uuidOf(p);
+        if (u == null) return false;
+
+        synchronized (this) {
+            PlayerRef prev = byUuid.put(u, p);
+            String name = safeName(p);
+            String key = nameKey(name);
+
+            if (prev != null) {
+                unlinkName(prev);
+
+                // Renamed while online: the old name goes away
+                String prevName = safeName(prev);
+                String prevKey = nameKey(prevName);
+                if (prevKey != null && !prevKey.equals(key)) {
+                    names.setOnline(prevName, u, false);
+                    names.removeOffline(prevName, u);
+                }
+            }
+
+            if (key != null) {
+                byName.put(key, p);
+                names.put(name, u, true);
+            }
+            recent.remove(u);
+            if (prev == null) joinedAt.put(u, System.currentTimeMillis());
+
+            if (prev == p) return false;
+            rebuildSnapshot();
+            return true;
+        }
+    }
+
+    @Nullable
+    PlayerRef remove(UUID uuid) {
+        if (uuid == null) return null;
+
+        synchronized (this) {
+            PlayerRef prev = byUuid.remove(uuid);
+            if (prev == null) return null;
+            joinedAt.remove(uuid);
+
+            unlinkName(prev);
+            rebuildSnapshot();
+
+            String name = safeName(prev);
+            if (nameKey(name) != null) {
+                names.setOnline(name, uuid, false);
+                recent.put(uuid, name.trim());
+            }
+            return prev;
+        }
+    }
+
+    /**
+     * Makes the registry match {@code online} (safety net for missed join/leave events).
+     * Players added in the last {@value #JOIN_GRACE_MS} ms are kept even if {@code online}
+     * doesn't list them yet.
+     *
+     * @return UUIDs that were dropped because they are no longer online
+     */
+    Set<UUID> reconcile(Iterable<PlayerRef> online) {
+        Set<UUID> seen = new HashSet<>();
+        for (PlayerRef p : online) {
+            UUID u = Capabilities.uuidOf(p);
+            if (u == null) continue;
+            seen.add(u);
+            if (byUuid.get(u) != p) add(p);
+        }
+
+        long now = System.currentTimeMillis();
+        Set<UUID> gone = new HashSet<>();
+        for (UUID u : byUuid.keySet()) {
+            if (seen.contains(u)) continue;
+
+            Long since = joinedAt.get(u);
+            if (since != null && now - since < JOIN_GRACE_MS) continue;
+            if (remove(u) != null) gone.add(u);
+        }
+        return gone;
+    }
+
+    @Nullable
+    PlayerRef byUuid(UUID uuid) {
+        return (uuid != null) ? byUuid.get(uuid) : null;
+    }
+
+    @Nullable
+    PlayerRef byName(String username) {
+        String key = nameKey(username);
+        return (key != null) ? byName.get(key) : null;
+    }
+
+    /**
+     * Online player by exact name or unique prefix (case-insensitive).
+     */
+    UsernameTrie.Match matchOnline(String prefix) {
+        return names.lookup(prefix, true, SUGGESTIONS);
+    }
+
+    List<String> complete(String prefix, boolean onlineOnly) {
+        return names.complete(prefix, onlineOnly, SUGGESTIONS);
+    }
+
+    boolean isOnline(UUID uuid) {
+        return uuid != null && byUuid.containsKey(uuid);
+    }
+
+    /**
+     * Immutable snapshot of the online players (safe to iterate from any thread).
+     */
+    List<PlayerRef> players() {
+        return snapshot;
+    }
+
+    int size() {
+        return byUuid.size();
+    }
+
+    // Caller holds the lock
+    private void rebuildSnapshot() {
+        PlayerRef[] arr = byUuid.values().toArray(new PlayerRef[0]);
+        snapshot = Collections.unmodifiableList(Arrays.asList(arr));
+    }
+
+    // Caller holds the lock
+    private void unlinkName(PlayerRef p) {
+        String name = safeName(p);
+        String key = nameKey(name);
+        if (key != null) byName.remove(key, p);
+    }
+
+    @Nullable
+    static String nameKey(String username) {
+        if (username == null) return null;
+        String t = username.trim();
+        return t.isEmpty() ? null : t.toLowerCase(Locale.ROOT);
+    }
+
+    private static String safeName(PlayerRef p) {
+        try {
+            return p != null ? p.getUsername() : null;
+        } catch (Throwable ignored) { }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.plugin;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-player chat state packed into one {@code long} per player (mode and debug
+ * bits). Each player gets a dense slot; the chat path does one UUID -> slot lookup and a
+ * single array read per event. Chat-admin status is not mirrored here: the admin store is
+ * the only source.
+ *
+ * Freed slots are reused, so a lock-free reader could look up a slot, lose it to a release
+ * and read the next owner's flags. Every release bumps {@link #releases} first; a reader that
+ * sees it change re-reads under the lock.
+ */
+final class PlayerStateTable {
+
+    static final long MODE_GLOBAL = 1L;
+    static final long DEBUG = 1L << 1;
+
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+
+    // Reads are lock-free; writes, growth and slot bookkeeping hold the table lock
+    private volatile AtomicLongArray flags = new AtomicLongArray(64);
+
+    // Bumped before a slot is freed (read-validation for lock-free readers)
+    private final AtomicLong releases = new AtomicLong();
+
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+
+    static ChatMode mode(long flags) {
+        return ((flags & MODE_GLOBAL) != 0L) ? ChatMode.GLOBAL : ChatMode.LOCAL;
+    }
+
+    static boolean has(long flags, long bit) {
+        return (flags & bit) != 0L;
+    }
+
+    /**
+     * Slot of the player, or -1 if it has none.
+     */
+    int slotOf(UUID uuid) {
+        if (uuid == null) return -1;
+        Integer slot = slots.get(uuid);
+        return (slot != null) ? slot : -1;
+    }
+
+    /**
+     * All flags of the player (0 = defaults: LOCAL, no debug...).
+     */
+    long flags(UUID uuid) {
+        if (uuid == null) return 0L;
+
+        long seen = releases.get();
+        Integer slot = slots.get(uuid);
+        if (slot == null) return 0L;
+
+        long v = flags.get(slot);
+        if (releases.get() == seen) return v;
+
+        // A slot was freed meanwhile and may now belong to someone else
+        synchronized (this) {
+            int s = slotOf(uuid);
+            return (s >= 0) ? flags.get(s) : 0L;
+        }
+    }
+
+    /**
+     * Slot of the player, allocating one (all flags clear) if needed.
+     */
+    synchronized int acquire(UUID uuid) {
+        Integer slot = slots.get(uuid);
+        if (slot != null) return slot;
+
+        int s = (freeCount > 0) ? freeSlots[--freeCount] : highWater++;
+        if (s >= flags.length()) grow(s + 1);
+        flags.set(s, 0L);
+        slots.put(uuid, s);
+        return s;
+    }
+
+    synchronized void set(UUID uuid, long bits, boolean on) {
+        if (uuid == null) return;
+        int slot = acquire(uuid);
+        long cur = flags.get(slot);
+        flags.set(slot, on ? (cur | bits) : (cur & ~bits));
+    }
+
+    /**
+     * Flips the bits and returns whether they are now set.
+     */
+    synchronized boolean toggle(UUID uuid, long bits) {
+        int slot = acquire(uuid);
+        long next = flags.get(slot) ^ bits;
+        flags.set(slot, next);
+        return (next & bits) != 0L;
+    }
+
+    /**
+     * Frees the player's slot. Returns the flags it had (0 if it had none).
+     */
+    synchronized long release(UUID uuid) {
+        if (uuid == null || !slots.containsKey(uuid)) return 0L;
+
+        releases.incrementAndGet();
+        int slot = slots.remove(uuid);
+
+        long old = flags.get(slot);
+        flags.set(slot, 0L);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        return old;
+    }
+
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Live view of the players that currently hold a slot.
+     */
+    Set<UUID> players() {
+        return slots.keySet();
+    }
+
+    // Caller holds the lock
+    private void grow(int min) {
+        AtomicLongArray old = flags;
+        AtomicLongArray next = new AtomicLongArray(Math.max(min, old.length() * 2));
+        for (int i = 0; i < old.length(); i++) next.set(i, old.get(i));
+        flags = next;
+    }
+}
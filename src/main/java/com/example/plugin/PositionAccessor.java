@@ -0,0 +1,140 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads player positions through MethodHandles that are resolved once per concrete
+ * transform / position class, instead of reflecting on every axis of every read.
+ */
+final class PositionAccessor {
+
+    private PositionAccessor() {}
+
+    private static final MethodType AXIS_TYPE = MethodType.methodType(double.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final String[] POSITION_GETTERS = {
+            "getPosition", "position",
+            "getTranslation", "translation",
+            "getLocation", "location"
+    };
+
+    private static final MethodHandle NUMBER_TO_DOUBLE;
+
+    static {
+        MethodHandle h = null;
+        try {
+            h = MethodHandles.publicLookup().findVirtual(Number.class, "doubleValue",
+                    MethodType.methodType(double.class));
+        } catch (Throwable ignored) { }
+        NUMBER_TO_DOUBLE = h;
+    }
+
+    // x/y/z readers for one concrete class (all null = class has no usable coordinates)
+    private record Axes(MethodHandle x, MethodHandle y, MethodHandle z) {
+        boolean usable() {
+            return x != null && y != null && z != null;
+        }
+    }
+
+    // transform class -> (Object)Object handle to its position object, or null if it has none
+    private static final ClassValue<MethodHandle> POSITION_OF = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (String name : POSITION_GETTERS) {
+                MethodHandle h = Capabilities.findGetter(type, name);
+                if (h != null && !h.type().returnType().isPrimitive()) return h.asType(GETTER_TYPE);
+            }
+            return null;
+        }
+    };
+
+    // position (or transform) class -> axis handles
+    private static final ClassValue<Axes> AXES_OF = new ClassValue<>() {
+        @Override
+        protected Axes computeValue(Class<?> type) {
+            return new Axes(axisHandle(type, "x"), axisHandle(type, "y"), axisHandle(type, "z"));
+        }
+    };
+
+    /**
+     * Writes x/y/z of the player into {@code out[0..2]}.
+     * Returns false (and leaves zeros) when the position can't be read.
+     */
+    static boolean read(PlayerRef p, double[] out) {
+        out[0] = 0.0;
+        out[1] = 0.0;
+        out[2] = 0.0;
+        if (p == null) return false;
+
+        try {
+            Object transform = p.getTransform();
+            if (transform == null) return false;
+
+            Object base = transform;
+            MethodHandle posGetter = POSITION_OF.get(transform.getClass());
+            if (posGetter != null) {
+                Object pos = (Object) posGetter.invokeExact(transform);
+                if (pos != null) base = pos;
+            }
+
+            Axes axes = AXES_OF.get(base.getClass());
+            if (!axes.usable()) return false;
+
+            out[0] = (double) axes.x().invokeExact(base);
+            out[1] = (double) axes.y().invokeExact(base);
+            out[2] = (double) axes.z().invokeExact(base);
+            return true;
+        } catch (Throwable ignored) { }
+
+        return false;
+    }
+
+    // ---------------- Probing ----------------
+
+    private static MethodHandle axisHandle(Class<?> type, String axis) {
+        String upper = axis.toUpperCase();
+
+        for (String name : new String[]{"get" + upper, axis}) {
+            MethodHandle h = toDouble(Capabilities.findGetter(type, name));
+            if (h != null) return h;
+        }
+
+        // Vector-like classes often expose public fields instead of getters
+        for (String name : new String[]{axis, upper}) {
+            try {
+                Field f = type.getField(name);
+                if (Modifier.isStatic(f.getModifiers())) continue;
+                MethodHandle h = toDouble(MethodHandles.publicLookup().unreflectGetter(f));
+                if (h != null) return h;
+            } catch (Throwable ignored) { }
+        }
+
+        return null;
+    }
+
+    private static MethodHandle toDouble(MethodHandle h) {
+        if (h == null) return null;
+
+        Class<?> rt = h.type().returnType();
+        try {
+            if (rt.isPrimitive()) {
+                if (rt == boolean.class || rt == char.class || rt == void.class) return null;
+                return h.asType(AXIS_TYPE);
+            }
+            if (rt == Double.class) return h.asType(AXIS_TYPE);
+            if (Number.class.isAssignableFrom(rt) && NUMBER_TO_DOUBLE != null) {
+                MethodHandle asNumber = h.asType(MethodType.methodType(Number.class, Object.class));
+                return MethodHandles.filterReturnValue(asNumber, NUMBER_TO_DOUBLE);
+            }
+        } catch (Throwable ignored) { }
+
+        return null;
+    }
+}
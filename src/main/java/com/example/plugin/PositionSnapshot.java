@@ -0,0 +1,147 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodic struct-of-arrays sample of every online player's world and position.
+ * Each player keeps a dense slot while online; every sample is published as an
+ * immutable {@link Frame} so chat proximity checks never touch player transforms.
+ */
+final class PositionSnapshot {
+
+    /**
+     * One published sample. Arrays are indexed by slot; {@code worlds[slot] == -1}
+     * means the slot is free (or the player's world/position was unreadable).
+     */
+    static final class Frame {
+        final int capacity;
+        final PlayerRef[] refs;
+        final UUID[] uuids;
+        final UUID[] worldUuids;
+        final int[] worlds;
+        final double[] xs;
+        final double[] ys;
+        final double[] zs;
+
+        private Frame(int capacity) {
+            this.capacity = capacity;
+            this.refs = new PlayerRef[capacity];
+            this.uuids = new UUID[capacity];
+            this.worldUuids = new UUID[capacity];
+            this.worlds = new int[capacity];
+            this.xs = new double[capacity];
+            this.ys = new double[capacity];
+            this.zs = new double[capacity];
+            Arrays.fill(worlds, -1);
+        }
+
+        boolean holds(int slot, UUID uuid) {
+            return slot >= 0 && slot < capacity && worlds[slot] >= 0 && uuid != null && uuid.equals(uuids[slot]);
+        }
+    }
+
+    private static final Frame EMPTY = new Frame(0);
+
+    private volatile Frame current = EMPTY;
+
+    // Live slot assignment (written only by the sampler, read by chat threads)
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> worldIds = new ConcurrentHashMap<>();
+
+    // Sampler-owned free list
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+
+    Frame current() {
+        return current;
+    }
+
+    /**
+     * Slot of the player in the given frame, or -1 if the frame has no sample for it.
+     */
+    int slotOf(Frame frame, UUID uuid) {
+        if (uuid == null) return -1;
+        Integer slot = slots.get(uuid);
+        if (slot == null || !frame.holds(slot, uuid)) return -1;
+        return slot;
+    }
+
+    /**
+     * Dense id of a world, or -1 if nobody has been sampled in it yet.
+     */
+    int worldId(UUID world) {
+        if (world == null) return -1;
+        return worldIds.getOrDefault(world, -1);
+    }
+
+    /**
+     * Samples all given players and publishes a new frame. Not thread-safe: call from one thread.
+     *
+     * @param released receives the UUIDs of players that were dropped since the previous sample
+     */
+    Frame sample(Iterable<PlayerRef> players, Set<UUID> released) {
+        Set<UUID> seen = new HashSet<>();
+        Map<Integer, PlayerRef> bySlot = new HashMap<>();
+
+        for (PlayerRef p : players) {
+            UUID u = Capabilities.uuidOf(p);
+            if (u == null || !seen.add(u)) continue;
+            bySlot.put(slots.computeIfAbsent(u, k -> allocateSlot()), p);
+        }
+
+        for (UUID u : slots.keySet()) {
+            if (seen.contains(u)) continue;
+            Integer slot = slots.remove(u);
+            if (slot != null) freeSlot(slot);
+            released.add(u);
+        }
+
+        Frame next = new Frame(highWater);
+        double[] pos = new double[3];
+
+        for (Map.Entry<Integer, PlayerRef> e : bySlot.entrySet()) {
+            int slot = e.getKey();
+            PlayerRef p = e.getValue();
+
+            UUID world;
+            try {
+                world = p.getWorldUuid();
+            } catch (Throwable t) {
+                world = null;
+            }
+            if (world == null) continue;
+
+            PositionAccessor.read(p, pos);
+
+            next.refs[slot] = p;
+            next.uuids[slot] = Capabilities.uuidOf(p);
+            next.worldUuids[slot] = world;
+            next.worlds[slot] = worldIds.computeIfAbsent(world, w -> worldIds.size());
+            next.xs[slot] = pos[0];
+            next.ys[slot] = pos[1];
+            next.zs[slot] = pos[2];
+        }
+
+        current = next;
+        return next;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        return highWater++;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Per-event chat formatter: the server calls it once per viewer, but the line is rendered
+ * only once and the same Message is returned to everyone. A {@link ViewerVariant} can
+ * still hand specific viewers their own Message (e.g. highlighting a mention).
+ */
+final class SharedChatFormatter {
+
+    interface Renderer {
+        Message render(String message);
+    }
+
+    interface ViewerVariant {
+        /**
+         * Returns a viewer-specific Message, or null to use the shared one.
+         */
+        @Nullable
+        Message forViewer(PlayerRef viewer, String message, Message shared);
+    }
+
+    private record Rendered(String input, Message output) {}
+
+    private final Renderer renderer;
+    @Nullable
+    private final ViewerVariant variant;
+
+    private volatile Rendered last;
+
+    SharedChatFormatter(Renderer renderer) {
+        this(renderer, null);
+    }
+
+    SharedChatFormatter(Renderer renderer, @Nullable ViewerVariant variant) {
+        this.renderer = renderer;
+        this.variant = variant;
+    }
+
+    Message format(PlayerRef viewer, String message) {
+        Message shared = shared(message);
+
+        if (variant != null) {
+            Message own = variant.forViewer(viewer, message, shared);
+            if (own != null) return own;
+        }
+        return shared;
+    }
+
+    private Message shared(String message) {
+        Rendered r = last;
+        if (r != null && Objects.equals(r.input(), message)) return r.output();
+
+        // Worst case two viewers race and both render; either result is identical
+        Message out = renderer.render(message);
+        last = new Rendered(message, out);
+        return out;
+    }
+}
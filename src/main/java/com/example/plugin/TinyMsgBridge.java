@@ -0,0 +1,115 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Probe-once bridge to TinyMessage ({@code fi.sulku.hytale.TinyMsg.parse(String)}).
+ * The parser is resolved on first use (normally from setup) and kept as a MethodHandle;
+ * "not installed" is remembered until {@link #reprobe()} is called.
+ */
+public final class TinyMsgBridge {
+
+    private TinyMsgBridge() {}
+
+    private static final String TINY_MSG_CLASS = "fi.sulku.hytale.TinyMsg";
+    private static final MethodType PARSE_TYPE = MethodType.methodType(Object.class, String.class);
+
+    private static final Object probeLock = new Object();
+
+    // null = not installed (only meaningful once probed)
+    private static volatile MethodHandle parser;
+    private static volatile boolean probed;
+
+    // Bumped whenever availability changes, so pre-rendered Messages know to rebuild
+    private static volatile int generation;
+
+    public static boolean isAvailable() {
+        if (!probed) probe();
+        return parser != null;
+    }
+
+    public static int generation() {
+        if (!probed) probe();
+        return generation;
+    }
+
+    /**
+     * Resolves the parser once. Later calls are no-ops until {@link #reprobe()}.
+     */
+    public static void probe() {
+        if (probed) return;
+        synchronized (probeLock) {
+            if (probed) return;
+            install(resolveParser());
+        }
+    }
+
+    /**
+     * Forgets the previous result (e.g. TinyMessage finished loading after us) and probes again.
+     * Returns whether TinyMsg is available now.
+     */
+    public static boolean reprobe() {
+        synchronized (probeLock) {
+            install(resolveParser());
+        }
+        return parser != null;
+    }
+
+    // Caller holds probeLock
+    private static void install(MethodHandle next) {
+        if (!probed || (parser == null) != (next == null)) generation++;
+        parser = next;
+        probed = true;
+    }
+
+    @Nullable
+    public static Message parse(String tinyText) {
+        if (!probed) probe();
+
+        MethodHandle h = parser;
+        if (h == null || tinyText == null) return null;
+
+        try {
+            Object out = (Object) h.invokeExact(tinyText);
+            if (out instanceof Message m) return m;
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    // With TinyMessage -> parsed markup, without -> plain raw
+    public static Message tinyOrPlain(String tinyMarkup, String plainText) {
+        Message parsed = parse(tinyMarkup);
+        return (parsed != null) ? parsed : Message.raw(plainText);
+    }
+
+    private static MethodHandle resolveParser() {
+        Class<?> tinyMsg = loadTinyMsgClass();
+        if (tinyMsg == null) return null;
+
+        try {
+            Method m = tinyMsg.getMethod("parse", String.class);
+            return MethodHandles.publicLookup().unreflect(m).asType(PARSE_TYPE);
+        } catch (Throwable ignored) { }
+        return null;
+    }
+
+    private static Class<?> loadTinyMsgClass() {
+        try {
+            return Class.forName(TINY_MSG_CLASS);
+        } catch (Throwable ignored) { }
+
+        // Some plugin loaders only expose other plugins through the context loader
+        try {
+            ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            if (cl != null) return Class.forName(TINY_MSG_CLASS, true, cl);
+        } catch (Throwable ignored) { }
+
+        return null;
+    }
+}
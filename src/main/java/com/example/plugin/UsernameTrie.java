@@ -0,0 +1,196 @@
+package com.example.plugin;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Case-insensitive prefix trie of usernames (online players plus recently seen ones).
+ * Every node counts the names below it, so exact and unique-prefix lookups cost
+ * O(name length) no matter how many players are indexed. Children are kept in key order,
+ * so a walk meets names alphabetically and can stop after the first {@code limit}.
+ */
+final class UsernameTrie {
+
+    /**
+     * Outcome of a lookup: a single match ({@code uuid != null}), or none with up to
+     * {@code limit} suggestions when the prefix is ambiguous.
+     */
+    record Match(@Nullable UUID uuid, @Nullable String name, boolean online, List<String> suggestions) {
+        boolean found() {
+            return uuid != null;
+        }
+
+        boolean ambiguous() {
+            return uuid == null && !suggestions.isEmpty();
+        }
+    }
+
+    private static final Match NONE = new Match(null, null, false, List.of());
+
+    private static final class Node {
+        final Map<Character, Node> children = new TreeMap<>();
+        int all;
+        int online;
+
+        // Terminal data (null uuid = no name ends here)
+        UUID uuid;
+        String name;
+        boolean isOnline;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds or updates a name. A name already held by another UUID is taken over.
+     */
+    synchronized void put(String name, UUID uuid, boolean online) {
+        String key = PlayerRegistry.nameKey(name);
+        if (key == null || uuid == null) return;
+
+        removeKey(key);
+
+        Node n = root;
+        n.all++;
+        if (online) n.online++;
+        for (int i = 0; i < key.length(); i++) {
+            n = n.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            n.all++;
+            if (online) n.online++;
+        }
+        n.uuid = uuid;
+        n.name = name.trim();
+        n.isOnline = online;
+    }
+
+    /**
+     * Flips the online flag of a name, if it still belongs to {@code uuid}.
+     */
+    synchronized void setOnline(String name, UUID uuid, boolean online) {
+        String key = PlayerRegistry.nameKey(name);
+        if (key == null || uuid == null) return;
+
+        Node end = find(key);
+        if (end == null || !uuid.equals(end.uuid) || end.isOnline == online) return;
+
+        String display = end.name;
+        removeKey(key);
+        put(display, uuid, online);
+    }
+
+    /**
+     * Drops an offline name, unless it has been taken over by someone else (or is online again).
+     */
+    synchronized void removeOffline(String name, UUID uuid) {
+        String key = PlayerRegistry.nameKey(name);
+        if (key == null) return;
+
+        Node end = find(key);
+        if (end != null && !end.isOnline && uuid != null && uuid.equals(end.uuid)) removeKey(key);
+    }
+
+    /**
+     * Exact name first, then a unique prefix. With {@code onlineOnly}, offline names are ignored.
+     */
+    synchronized Match lookup(String prefix, boolean onlineOnly, int limit) {
+        String key = PlayerRegistry.nameKey(prefix);
+        if (key == null) return NONE;
+
+        Node n = find(key);
+        if (n == null) return NONE;
+
+        if (n.uuid != null && (n.isOnline || !onlineOnly)) {
+            return new Match(n.uuid, n.name, n.isOnline, List.of());
+        }
+
+        int count = onlineOnly ? n.online : n.all;
+        if (count == 0) return NONE;
+
+        if (count == 1) {
+            Node only = n;
+            while (only.uuid == null || (onlineOnly && !only.isOnline)) {
+                Node next = null;
+                for (Node c : only.children.values()) {
+                    if ((onlineOnly ? c.online : c.all) > 0) {
+                        next = c;
+                        break;
+                    }
+                }
+                if (next == null) return NONE;
+                only = next;
+            }
+            return new Match(only.uuid, only.name, only.isOnline, List.of());
+        }
+
+        List<String> out = new ArrayList<>();
+        collect(n, onlineOnly, Math.max(1, limit), out);
+        return new Match(null, null, false, out);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, sorted case-insensitively.
+     */
+    synchronized List<String> complete(String prefix, boolean onlineOnly, int limit) {
+        String key = (prefix == null) ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        Node n = key.isEmpty() ? root : find(key);
+        if (n == null) return List.of();
+
+        List<String> out = new ArrayList<>();
+        collect(n, onlineOnly, Math.max(1, limit), out);
+        return out;
+    }
+
+    synchronized int size() {
+        return root.all;
+    }
+
+    // ---------------- Internals (caller holds the lock) ----------------
+
+    @Nullable
+    private Node find(String key) {
+        Node n = root;
+        for (int i = 0; i < key.length() && n != null; i++) {
+            n = n.children.get(key.charAt(i));
+        }
+        return n;
+    }
+
+    private void removeKey(String key) {
+        Node end = find(key);
+        if (end == null || end.uuid == null) return;
+
+        boolean online = end.isOnline;
+        end.uuid = null;
+        end.name = null;
+        end.isOnline = false;
+
+        Node n = root;
+        n.all--;
+        if (online) n.online--;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = n.children.get(key.charAt(i));
+            child.all--;
+            if (online) child.online--;
+            if (child.all == 0) {
+                n.children.remove(key.charAt(i));
+                return;
+            }
+            n = child;
+        }
+    }
+
+    // Pre-order over sorted children: a name comes before the longer names it prefixes
+    private static void collect(Node n, boolean onlineOnly, int limit, List<String> out) {
+        if (out.size() >= limit) return;
+        if (n.uuid != null && (n.isOnline || !onlineOnly)) out.add(n.name);
+
+        for (Node c : n.children.values()) {
+            if (out.size() >= limit) return;
+            if ((onlineOnly ? c.online : c.all) > 0) collect(c, onlineOnly, limit, out);
+        }
+    }
+}
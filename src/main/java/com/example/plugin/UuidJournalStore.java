@@ -0,0 +1,312 @@
+package com.example.plugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small embedded UUID -> long store (chat admins, per-player preferences...).
+ *
+ * On disk: {@code <name>.snapshot} (compact binary: UUIDs as two longs plus the value) and
+ * {@code <name>.journal} (append-only put/remove records). Both are replayed on open; a torn
+ * record at the end of the journal (crash mid-append) is ignored. Every journal write (one
+ * record, or one batch from {@link #addAll}) is forced to disk before the call returns.
+ * Once the journal outgrows the data it describes, it is folded into a new snapshot on the
+ * scheduler. If the files can't be opened the store keeps working in memory only.
+ */
+final class UuidJournalStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x4C474355; // "LGCU"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER = 12;        // magic + version + count
+    private static final int ENTRY_BYTES = 24;            // msb + lsb + value
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int RECORD_BYTES = 1 + ENTRY_BYTES;
+
+    // Compact when the journal has this many records and more than twice as many as live entries
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    private final String name;
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final ChatScheduler scheduler;
+
+    private final Map<UUID, Long> entries = new ConcurrentHashMap<>();
+
+    // Guarded by this (null = memory-only)
+    private FileChannel journal;
+    private int journalRecords;
+    private boolean compactionQueued;
+
+    private UuidJournalStore(Path dir, String name, ChatScheduler scheduler) {
+        this.name = name;
+        this.snapshotFile = dir.resolve(name + ".snapshot");
+        this.journalFile = dir.resolve(name + ".journal");
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Loads {@code <dir>/<name>.snapshot} + {@code .journal}. Never throws: on I/O errors the
+     * store is memory-only (logged).
+     */
+    static UuidJournalStore open(Path dir, String name, ChatScheduler scheduler) {
+        UuidJournalStore store = new UuidJournalStore(dir, name, scheduler);
+        try {
+            Files.createDirectories(dir);
+            store.loadSnapshot();
+            store.replayJournal();
+            store.journal = FileChannel.open(store.journalFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (Throwable t) {
+            System.err.println("[LocalGlobalChat] ERROR opening store '" + name + "' (changes kept in memory only).");
+        }
+        return store;
+    }
+
+    // ---------------- Reads (lock-free) ----------------
+
+    boolean contains(UUID uuid) {
+        return uuid != null && entries.containsKey(uuid);
+    }
+
+    long get(UUID uuid, long fallback) {
+        Long v = (uuid != null) ? entries.get(uuid) : null;
+        return (v != null) ? v : fallback;
+    }
+
+    /**
+     * Live, unmodifiable-by-contract view of the keys.
+     */
+    Set<UUID> keys() {
+        return entries.keySet();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * False once the store is memory-only (open or write failed): callers must keep their own copy.
+     */
+    synchronized boolean isDurable() {
+        return journal != null;
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    // ---------------- Writes (one journal record each) ----------------
+
+    /**
+     * Set-style insert (value 1). Returns false if it was already present.
+     */
+    boolean add(UUID uuid) {
+        if (uuid == null) return false;
+        synchronized (this) {
+            if (entries.containsKey(uuid)) return false;
+            put(uuid, 1L);
+            return true;
+        }
+    }
+
+    synchronized void put(UUID uuid, long value) {
+        if (uuid == null) return;
+        Long prev = entries.put(uuid, value);
+        if (prev == null || prev != value) append(OP_PUT, uuid, value);
+    }
+
+    synchronized boolean remove(UUID uuid) {
+        if (uuid == null || entries.remove(uuid) == null) return false;
+        append(OP_REMOVE, uuid, 0L);
+        return true;
+    }
+
+    /**
+     * Adds every UUID (set-style) with a single journal write. Returns how many were new.
+     */
+    synchronized int addAll(Iterable<UUID> uuids) {
+        ByteBuffer buf = null;
+        int added = 0;
+
+        for (UUID u : uuids) {
+            if (u == null || entries.putIfAbsent(u, 1L) != null) continue;
+            if (buf == null || buf.remaining() < RECORD_BYTES) buf = grow(buf);
+            putRecord(buf, OP_PUT, u, 1L);
+            added++;
+        }
+
+        if (buf != null && added > 0) {
+            buf.flip();
+            writeJournal(buf, added);
+        }
+        return added;
+    }
+
+    /**
+     * Rewrites the snapshot from memory and empties the journal now.
+     */
+    synchronized void compact() {
+        compactionQueued = false;
+        if (journal == null) return;
+
+        try {
+            writeSnapshot();
+            journal.truncate(0L);
+            journal.force(true);
+            journalRecords = 0;
+        } catch (Throwable t) {
+            System.err.println("[LocalGlobalChat] ERROR compacting store '" + name + "'.");
+        }
+    }
+
+    synchronized void close() {
+        if (journal == null) return;
+        try {
+            journal.force(true);
+            journal.close();
+        } catch (Throwable ignored) { }
+        journal = null;
+    }
+
+    // ---------------- Internals (caller holds the lock) ----------------
+
+    private void append(byte op, UUID uuid, long value) {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_BYTES);
+        putRecord(buf, op, uuid, value);
+        buf.flip();
+        writeJournal(buf, 1);
+    }
+
+    private void writeJournal(ByteBuffer buf, int records) {
+        if (journal == null) return;
+        try {
+            while (buf.hasRemaining()) journal.write(buf);
+            journal.force(false);
+            journalRecords += records;
+        } catch (Throwable t) {
+            System.err.println("[LocalGlobalChat] ERROR writing store '" + name + "' (changes kept in memory only from now on).");
+            try {
+                journal.close();
+            } catch (Throwable ignored) { }
+            journal = null;
+            return;
+        }
+
+        if (!compactionQueued && journalRecords >= COMPACT_MIN_RECORDS && journalRecords > 2 * entries.size()) {
+            compactionQueued = true;
+            scheduler.execute(this::compact);
+        }
+    }
+
+    private static void putRecord(ByteBuffer buf, byte op, UUID uuid, long value) {
+        buf.put(op);
+        buf.putLong(uuid.getMostSignificantBits());
+        buf.putLong(uuid.getLeastSignificantBits());
+        buf.putLong(value);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf) {
+        int cap = (buf == null) ? RECORD_BYTES * 256 : buf.capacity() * 2;
+        ByteBuffer next = ByteBuffer.allocate(cap);
+        if (buf != null) {
+            buf.flip();
+            next.put(buf);
+        }
+        return next;
+    }
+
+    private void loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) return;
+
+        // Plain read, not a mapping: a mapped file can't be replaced on Windows until the map is GC'd
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        if (buf.remaining() < SNAPSHOT_HEADER) return;
+
+        if (buf.getInt() != SNAPSHOT_MAGIC || buf.getInt() != SNAPSHOT_VERSION) {
+            System.err.println("[LocalGlobalChat] ERROR: " + snapshotFile.getFileName() + " is not a store snapshot, ignored.");
+            return;
+        }
+
+        int count = buf.getInt();
+        for (int i = 0; i < count && buf.remaining() >= ENTRY_BYTES; i++) {
+            UUID u = new UUID(buf.getLong(), buf.getLong());
+            entries.put(u, buf.getLong());
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalFile)) return;
+
+        // Read fully (no mapping) so the torn tail can be truncated below, Windows included
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(journalFile));
+        long size = buf.remaining();
+        if (size == 0L) return;
+
+        int records = 0;
+        while (buf.remaining() >= RECORD_BYTES) {
+            byte op = buf.get();
+            UUID u = new UUID(buf.getLong(), buf.getLong());
+            long value = buf.getLong();
+
+            if (op == OP_PUT) entries.put(u, value);
+            else if (op == OP_REMOVE) entries.remove(u);
+            else break;
+            records++;
+        }
+
+        // Drop a torn tail so new records start on a record boundary
+        long valid = (long) records * RECORD_BYTES;
+        if (valid < size) {
+            try (FileChannel ch = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                ch.truncate(valid);
+                ch.force(true);
+            }
+        }
+        journalRecords = records;
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        int count = entries.size();
+        ByteBuffer buf = ByteBuffer.allocate(SNAPSHOT_HEADER + count * ENTRY_BYTES);
+        buf.putInt(SNAPSHOT_MAGIC);
+        buf.putInt(SNAPSHOT_VERSION);
+        buf.putInt(0);
+
+        int written = 0;
+        for (Map.Entry<UUID, Long> e : entries.entrySet()) {
+            if (written == count) break;
+            buf.putLong(e.getKey().getMostSignificantBits());
+            buf.putLong(e.getKey().getLeastSignificantBits());
+            buf.putLong(e.getValue());
+            written++;
+        }
+        buf.putInt(8, written);
+        buf.flip();
+
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+
+        try {
+            Files.move(tmp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.plugin;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API half of {@link LocalRecipientFilter}. Only loaded when the JVM was started
+ * with {@code --add-modules jdk.incubator.vector}; never reference it from anywhere else.
+ */
+final class VectorDistanceKernel {
+
+    private VectorDistanceKernel() {}
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    static void filter(double[] xs, double[] ys, double[] zs, int[] slots, int count,
+                       double x0, double y0, double z0, double radiusSq, long[] mask) {
+        int lanes = SPECIES.length();
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+
+        // lanes is a power of two <= 64, so one chunk never straddles two mask words
+        for (; i < bound; i += lanes) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, 0, slots, i).sub(x0);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, 0, slots, i).sub(y0);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, zs, 0, slots, i).sub(z0);
+
+            DoubleVector d2 = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            long bits = d2.compare(VectorOperators.LE, radiusSq).toLong();
+            if (bits != 0L) mask[i >>> 6] |= bits << (i & 63);
+        }
+
+        LocalRecipientFilter.scalar(xs, ys, zs, slots, i, count, x0, y0, z0, radiusSq, mask);
+    }
+}
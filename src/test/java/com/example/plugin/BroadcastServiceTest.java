@@ -0,0 +1,121 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BroadcastServiceTest {
+
+    private final AtomicBoolean inline = new AtomicBoolean();
+    private final BroadcastService service = new BroadcastService(inline::get);
+
+    @AfterEach
+    void stopService() {
+        service.shutdown();
+    }
+
+    @Test
+    void partitionKeepsWorldsApartAndLosesNobody() {
+        UUID overworld = UUID.randomUUID();
+        UUID nether = UUID.randomUUID();
+
+        List<PlayerRef> players = new ArrayList<>();
+        players.addAll(players(overworld, 500));
+        players.addAll(players(nether, 10));
+        players.addAll(players(null, 3));
+        players.add(null);
+
+        List<List<PlayerRef>> chunks = service.partition(players);
+
+        Set<PlayerRef> seen = new HashSet<>();
+        for (List<PlayerRef> chunk : chunks) {
+            assertFalse(chunk.isEmpty());
+            UUID world = chunk.get(0).getWorldUuid();
+            for (PlayerRef p : chunk) {
+                assertEquals(world, p.getWorldUuid(), "chunk mixes worlds");
+                assertTrue(seen.add(p), "player in two chunks");
+            }
+        }
+        assertEquals(513, seen.size());
+
+        // Small worlds stay whole
+        assertEquals(1, chunks.stream().filter(c -> nether.equals(c.get(0).getWorldUuid())).count());
+        assertEquals(1, chunks.stream().filter(c -> c.get(0).getWorldUuid() == null).count());
+    }
+
+    @Test
+    void sendReachesEveryPlayerOnce() {
+        List<PlayerRef> players = players(UUID.randomUUID(), 1000);
+        Map<PlayerRef, Integer> hits = new ConcurrentHashMap<>();
+
+        BroadcastService.Result r = service.send(players, p -> hits.merge(p, 1, Integer::sum));
+
+        assertEquals(1000, r.recipients());
+        assertEquals(1000, hits.size());
+        assertTrue(hits.values().stream().allMatch(n -> n == 1));
+        assertEquals(1, service.broadcastCount());
+        assertEquals(r, service.lastResult());
+    }
+
+    @Test
+    void oneFailingPlayerDoesNotStopTheRest() {
+        List<PlayerRef> players = players(UUID.randomUUID(), 200);
+        PlayerRef bad = players.get(17);
+        Set<PlayerRef> hits = ConcurrentHashMap.newKeySet();
+
+        service.send(players, p -> {
+            if (p == bad) throw new IllegalStateException("disconnected");
+            hits.add(p);
+        });
+        assertEquals(199, hits.size());
+    }
+
+    @Test
+    void inlineModeStaysOnTheCallingThread() {
+        inline.set(true);
+        Thread caller = Thread.currentThread();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        BroadcastService.Result r = service.send(players(UUID.randomUUID(), 500), p -> threads.add(Thread.currentThread()));
+
+        assertEquals(Set.of(caller), threads);
+        assertEquals(1, r.chunks());
+    }
+
+    @Test
+    void pacedSendCompletesWithTotals() throws Exception {
+        List<PlayerRef> players = players(UUID.randomUUID(), 250);
+        Set<PlayerRef> hits = ConcurrentHashMap.newKeySet();
+
+        BroadcastService.Result r = service.sendPaced(players, hits::add, 100, 5L).get(5, TimeUnit.SECONDS);
+
+        assertEquals(250, r.recipients());
+        assertEquals(250, hits.size());
+    }
+
+    private static List<PlayerRef> players(UUID world, int count) {
+        List<PlayerRef> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PlayerRef p = mock(PlayerRef.class);
+            when(p.getWorldUuid()).thenReturn(world);
+            out.add(p);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CapabilitiesTest {
+
+    public static class EmptyInputContext {
+        public String getInputString() {
+            return "";
+        }
+
+        public String getRawInput() {
+            return "/msg bob hello there";
+        }
+    }
+
+    public static class BlankOnlyContext {
+        public String getInputString() {
+            return "  ";
+        }
+
+        public Object getInput() {
+            return null;
+        }
+    }
+
+    public static class Shapes {
+        public void getX() {}
+
+        public double getY() {
+            return 2.5;
+        }
+
+        public static double getZ() {
+            return 0;
+        }
+    }
+
+    @Test
+    void emptyRawInputFallsThroughToTheNextGetter() {
+        assertEquals("/msg bob hello there", Capabilities.rawInputOf(new EmptyInputContext()));
+    }
+
+    @Test
+    void noUsableRawInputIsNull() {
+        assertNull(Capabilities.rawInputOf(new BlankOnlyContext()));
+        assertNull(Capabilities.rawInputOf(new Object()));
+        assertNull(Capabilities.rawInputOf(null));
+    }
+
+    @Test
+    void findGetterSkipsVoidStaticAndMissingMethods() {
+        assertNull(Capabilities.findGetter(Shapes.class, "getX"));
+        assertNull(Capabilities.findGetter(Shapes.class, "getZ"));
+        assertNull(Capabilities.findGetter(Shapes.class, "getW"));
+        assertNotNull(Capabilities.findGetter(Shapes.class, "getY"));
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.plugin;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatPipelineTest {
+
+    private final List<ChatPipeline.Snapshot> processed = new CopyOnWriteArrayList<>();
+    private final ChatPipeline pipeline = new ChatPipeline(processed::add, p -> null);
+
+    @AfterEach
+    void stopPipeline() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void intakeKeepsSubmitOrder() {
+        List<ChatPipeline.Snapshot> submitted = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ChatPipeline.Snapshot s = new ChatPipeline.Snapshot(null, null, "p", ChatMode.GLOBAL, false,
+                    "line " + i, null, 0, 0, 0, List.of());
+            submitted.add(s);
+            pipeline.submit(s);
+        }
+
+        await(() -> processed.size() == submitted.size());
+        for (int i = 0; i < submitted.size(); i++) assertSame(submitted.get(i), processed.get(i));
+    }
+
+    @Test
+    void linesReachEachRecipientInOrder() {
+        // Room for everything: this is about order, not dropping
+        pipeline.configure(1000, ChatPipeline.DropPolicy.DROP_OLDEST, 0);
+        pipeline.setCoalesceMillis(0);
+        List<Message> inboxA = new CopyOnWriteArrayList<>();
+        List<Message> inboxB = new CopyOnWriteArrayList<>();
+        PlayerRef a = player(inboxA);
+        PlayerRef b = player(inboxB);
+
+        List<Message> sent = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Message m = Message.raw("line " + i);
+            sent.add(m);
+            pipeline.deliver(a, m, ChatPipeline.Kind.GLOBAL);
+            pipeline.deliver(b, m, ChatPipeline.Kind.PRIVATE);
+        }
+
+        await(() -> inboxA.size() == sent.size() && inboxB.size() == sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            assertSame(sent.get(i), inboxA.get(i));
+            assertSame(sent.get(i), inboxB.get(i));
+        }
+        assertEquals(600, pipeline.deliveredCount());
+        assertEquals(2, pipeline.outboxCount());
+    }
+
+    @Test
+    void concurrentSendersKeepTheirOwnOrder() throws Exception {
+        pipeline.setCoalesceMillis(0);
+        List<Message> inbox = new CopyOnWriteArrayList<>();
+        PlayerRef to = player(inbox);
+
+        List<List<Message>> bySender = new ArrayList<>();
+        List<Thread> senders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<Message> mine = new ArrayList<>();
+            for (int i = 0; i < 100; i++) mine.add(Message.raw(t + ":" + i));
+            bySender.add(mine);
+            senders.add(new Thread(() -> {
+                for (Message m : mine) pipeline.deliver(to, m, ChatPipeline.Kind.PRIVATE);
+            }));
+        }
+        for (Thread t : senders) t.start();
+        for (Thread t : senders) t.join();
+
+        await(() -> inbox.size() == 400);
+        for (List<Message> mine : bySender) {
+            int last = -1;
+            for (Message m : mine) {
+                int at = inbox.indexOf(m);
+                assertTrue(at > last, "out of order for one sender");
+                last = at;
+            }
+        }
+    }
+
+    @Test
+    void coalescingCombinesLinesIntoFewerSends() {
+        pipeline.setCoalesceMillis(100);
+        List<Message> inbox = new CopyOnWriteArrayList<>();
+        PlayerRef to = player(inbox);
+
+        for (int i = 0; i < 10; i++) pipeline.deliver(to, Message.raw("line " + i), ChatPipeline.Kind.GLOBAL);
+
+        await(() -> pipeline.deliveredCount() == 10);
+        assertTrue(pipeline.packetCount() < 10, "expected combined sends, got " + pipeline.packetCount());
+        assertEquals(pipeline.packetCount(), inbox.size());
+    }
+
+    // ---------------- Drop policy ----------------
+
+    @Test
+    void queueLimitIsClampedOnce() {
+        assertEquals(ChatPipeline.MIN_QUEUE_LIMIT, ChatPipeline.clampQueueLimit(0));
+        assertEquals(ChatPipeline.MIN_QUEUE_LIMIT, ChatPipeline.clampQueueLimit(-5));
+        assertEquals(64, ChatPipeline.clampQueueLimit(64));
+        assertEquals(ChatPipeline.MAX_QUEUE_LIMIT, ChatPipeline.clampQueueLimit(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestChatLines() throws Exception {
+        pipeline.configure(4, ChatPipeline.DropPolicy.DROP_OLDEST, 0);
+        Stalled to = stalledPlayer();
+
+        List<Message> lines = deliverAll(to.ref, ChatPipeline.Kind.GLOBAL, 6);
+        to.release();
+
+        await(() -> to.inbox.size() == 5);
+        assertEquals(List.of(to.first, lines.get(2), lines.get(3), lines.get(4), lines.get(5)), to.inbox);
+        assertEquals(2, pipeline.droppedFor(to.uuid));
+    }
+
+    @Test
+    void dropNewestKeepsTheBacklog() throws Exception {
+        pipeline.configure(4, ChatPipeline.DropPolicy.DROP_NEWEST, 0);
+        Stalled to = stalledPlayer();
+
+        List<Message> lines = deliverAll(to.ref, ChatPipeline.Kind.LOCAL, 6);
+        to.release();
+
+        await(() -> to.inbox.size() == 5);
+        assertEquals(List.of(to.first, lines.get(0), lines.get(1), lines.get(2), lines.get(3)), to.inbox);
+        assertEquals(2, pipeline.droppedCount());
+    }
+
+    @Test
+    void privateMessagesAreNotDroppedForRoom() throws Exception {
+        pipeline.configure(4, ChatPipeline.DropPolicy.DROP_OLDEST, 0);
+        Stalled to = stalledPlayer();
+
+        deliverAll(to.ref, ChatPipeline.Kind.GLOBAL, 4);
+        List<Message> pms = deliverAll(to.ref, ChatPipeline.Kind.PRIVATE, 3);
+        to.release();
+
+        await(() -> to.inbox.size() == 8);
+        assertTrue(to.inbox.containsAll(pms));
+        assertEquals(0, pipeline.droppedCount());
+    }
+
+    @Test
+    void privateMessagesStopAtTheHardCap() throws Exception {
+        pipeline.configure(4, ChatPipeline.DropPolicy.DROP_OLDEST, 0);
+        int cap = 4 * ChatPipeline.HARD_LIMIT_FACTOR;
+        Stalled to = stalledPlayer();
+
+        deliverAll(to.ref, ChatPipeline.Kind.PRIVATE, cap + 10);
+        assertEquals(cap, pipeline.pendingFor(to.uuid));
+        assertEquals(10, pipeline.droppedFor(to.uuid));
+
+        to.release();
+        await(() -> to.inbox.size() == cap + 1);
+    }
+
+    // ---------------- Helpers ----------------
+
+    // A player whose first send blocks until release(): later lines pile up in the outbox
+    private final class Stalled {
+        final List<Message> inbox = new CopyOnWriteArrayList<>();
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final UUID uuid = UUID.randomUUID();
+        final Message first = Message.raw("first");
+        PlayerRef ref;
+
+        void release() {
+            gate.countDown();
+        }
+    }
+
+    private Stalled stalledPlayer() throws Exception {
+        pipeline.setCoalesceMillis(0);
+        Stalled s = new Stalled();
+
+        PlayerRef p = mock(PlayerRef.class);
+        when(p.getUuid()).thenReturn(s.uuid);
+        doAnswer(inv -> {
+            s.inbox.add(inv.getArgument(0));
+            s.sending.countDown();
+            s.gate.await();
+            return null;
+        }).when(p).sendMessage(any());
+        s.ref = p;
+
+        pipeline.deliver(p, s.first, ChatPipeline.Kind.NOTICE);
+        assertTrue(s.sending.await(2, TimeUnit.SECONDS));
+        return s;
+    }
+
+    private List<Message> deliverAll(PlayerRef to, ChatPipeline.Kind kind, int count) {
+        List<Message> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Message m = Message.raw(kind + " " + i);
+            out.add(m);
+            pipeline.deliver(to, m, kind);
+        }
+        return out;
+    }
+
+    private static PlayerRef player(List<Message> inbox) {
+        PlayerRef p = mock(PlayerRef.class);
+        when(p.getUuid()).thenReturn(UUID.randomUUID());
+        doAnswer(inv -> {
+            inbox.add(inv.getArgument(0));
+            return null;
+        }).when(p).sendMessage(any());
+        return p;
+    }
+
+    private static void await(BooleanSupplier done) {
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (!done.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("timed out");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatWarningSchedulerTest {
+
+    @Test
+    void phaseIsInsideThePeriod() {
+        for (int period : new int[]{1, 7, 60, 3600}) {
+            for (int i = 0; i < 1000; i++) {
+                int phase = ChatWarningScheduler.phaseOf(UUID.randomUUID(), period);
+                assertTrue(phase >= 0 && phase < period, "phase " + phase + " for period " + period);
+            }
+        }
+    }
+
+    @Test
+    void phaseIsStablePerPlayer() {
+        UUID u = UUID.randomUUID();
+        assertEquals(ChatWarningScheduler.phaseOf(u, 300), ChatWarningScheduler.phaseOf(u, 300));
+    }
+
+    @Test
+    void sequentialUuidsSpreadOverTheInterval() {
+        // Offline-mode style UUIDs differ in a few low bits only
+        int period = 60;
+        int[] perSlot = new int[period];
+        for (int i = 0; i < 6000; i++) {
+            perSlot[ChatWarningScheduler.phaseOf(new UUID(0L, i), period)]++;
+        }
+
+        // 100 per slot on average: no slot empty, none with a burst
+        for (int n : perSlot) assertTrue(n > 40 && n < 200, "slot count " + n);
+    }
+}
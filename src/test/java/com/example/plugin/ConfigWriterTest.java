@@ -0,0 +1,155 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final ChatScheduler scheduler = new ChatScheduler();
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void requestsInOneWindowBecomeOneWrite() throws Exception {
+        Path target = dir.resolve("test.properties");
+        AtomicInteger writes = new AtomicInteger();
+        AtomicInteger value = new AtomicInteger();
+
+        ConfigWriter writer = new ConfigWriter(target, "test", scheduler, p -> {
+            writes.incrementAndGet();
+            p.setProperty("value", String.valueOf(value.get()));
+        });
+
+        for (int i = 1; i <= 50; i++) {
+            value.set(i);
+            writer.requestSave();
+        }
+        assertFalse(Files.exists(target), "requestSave must not write on the caller's thread");
+
+        Thread.sleep(ConfigWriter.COALESCE_MS * 3);
+        assertEquals(1, writes.get());
+        assertEquals("50", load(target).getProperty("value"));
+    }
+
+    @Test
+    void flushWritesNowAndCancelsThePendingWrite() throws Exception {
+        Path target = dir.resolve("test.properties");
+        AtomicInteger writes = new AtomicInteger();
+        ConfigWriter writer = new ConfigWriter(target, "test", scheduler, p -> writes.incrementAndGet());
+
+        writer.requestSave();
+        writer.flush();
+        assertTrue(Files.exists(target));
+
+        Thread.sleep(ConfigWriter.COALESCE_MS * 2);
+        assertEquals(1, writes.get());
+
+        // Nothing changed since: no write
+        writer.flush();
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void foreignKeysAreKeptAndDroppedKeysAreNot() throws Exception {
+        Path target = dir.resolve("test.properties");
+        ConfigWriter writer = new ConfigWriter(target, "test", scheduler, p -> p.setProperty("ours", "1"));
+
+        Properties loaded = new Properties();
+        loaded.setProperty("theirs", "x");
+        loaded.setProperty("oneShot", "y");
+        writer.setBase(loaded);
+        writer.dropFromBase("oneShot");
+
+        writer.requestSave();
+        writer.flush();
+
+        Properties p = load(target);
+        assertEquals("1", p.getProperty("ours"));
+        assertEquals("x", p.getProperty("theirs"));
+        assertNull(p.getProperty("oneShot"));
+        assertTrue(writer.isOwnWrite(Files.readAllBytes(target)));
+        assertFalse(Files.exists(dir.resolve("test.properties.tmp")));
+    }
+
+    @Test
+    void failedWriteIsRetried() throws Exception {
+        Path target = dir.resolve("test.properties");
+        AtomicBoolean fail = new AtomicBoolean(true);
+        ConfigWriter writer = new ConfigWriter(target, "test", scheduler, p -> {
+            if (fail.getAndSet(false)) throw new IllegalStateException("disk full");
+            p.setProperty("ok", "true");
+        });
+
+        writer.requestSave();
+        writer.flush();
+        assertFalse(Files.exists(target));
+
+        writer.flush();
+        assertEquals("true", load(target).getProperty("ok"));
+    }
+
+    @Test
+    void flushWaitsForAWriteInProgress() throws Exception {
+        Path target = dir.resolve("test.properties");
+        AtomicBoolean blockFirst = new AtomicBoolean(true);
+        CountDownLatch inFirstWrite = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ConfigWriter writer = new ConfigWriter(target, "test", scheduler, p -> {
+            p.setProperty("value", "1");
+            if (blockFirst.getAndSet(false)) {
+                inFirstWrite.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // Scheduled write starts and stalls
+        writer.requestSave();
+        assertTrue(inFirstWrite.await(2, TimeUnit.SECONDS));
+
+        // Nothing new is dirty: the shutdown flush must still wait for that write
+        Thread shutdown = new Thread(writer::flush);
+        shutdown.start();
+
+        Thread.sleep(100);
+        assertTrue(shutdown.isAlive(), "flush returned while a write was still running");
+
+        release.countDown();
+        shutdown.join(2000);
+        assertFalse(shutdown.isAlive());
+        assertEquals("1", load(target).getProperty("value"));
+    }
+
+    private static Properties load(Path file) throws Exception {
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            p.load(in);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalRecipientFilterTest {
+
+    // Same squared-distance test, one candidate at a time
+    private static long[] expected(double[] xs, double[] ys, double[] zs, int[] slots, int count,
+                                   double x0, double y0, double z0, double radiusSq) {
+        long[] mask = new long[(count + 63) >>> 6];
+        for (int i = 0; i < count; i++) {
+            int s = slots[i];
+            double dx = xs[s] - x0, dy = ys[s] - y0, dz = zs[s] - z0;
+            if (dx * dx + dy * dy + dz * dz <= radiusSq) mask[i >>> 6] |= 1L << (i & 63);
+        }
+        return mask;
+    }
+
+    @Test
+    void matchesTheScalarDistanceTestForEveryCount() {
+        Random rnd = new Random(42);
+        int capacity = 300;
+        double[] xs = new double[capacity], ys = new double[capacity], zs = new double[capacity];
+        for (int i = 0; i < capacity; i++) {
+            xs[i] = rnd.nextDouble() * 200 - 100;
+            ys[i] = rnd.nextDouble() * 40;
+            zs[i] = rnd.nextDouble() * 200 - 100;
+        }
+
+        // Counts around lane and mask-word boundaries, candidates in scattered order
+        for (int count : new int[]{0, 1, 3, 4, 7, 8, 63, 64, 65, 129, 200}) {
+            int[] slots = new int[count];
+            for (int i = 0; i < count; i++) slots[i] = rnd.nextInt(capacity);
+
+            long[] got = LocalRecipientFilter.filter(xs, ys, zs, slots, count, 5, 10, -5, 50 * 50);
+            assertArrayEquals(expected(xs, ys, zs, slots, count, 5, 10, -5, 50 * 50), got, "count " + count);
+        }
+    }
+
+    @Test
+    void radiusIsInclusive() {
+        double[] xs = {3, 0, 0}, ys = {4, 0, 0}, zs = {0, 0, 5.0001};
+        int[] slots = {0, 1, 2};
+
+        long[] mask = LocalRecipientFilter.filter(xs, ys, zs, slots, 3, 0, 0, 0, 25);
+        assertEquals(0b011L, mask[0]);
+    }
+
+    @Test
+    void onlyTheFirstCountCandidatesAreTested() {
+        double[] xs = {0, 0}, ys = {0, 0}, zs = {0, 0};
+        int[] slots = {0, 1, 0, 1};
+
+        long[] mask = LocalRecipientFilter.filter(xs, ys, zs, slots, 2, 0, 0, 0, 1);
+        assertEquals(1, mask.length);
+        assertEquals(0b11L, mask[0]);
+    }
+}
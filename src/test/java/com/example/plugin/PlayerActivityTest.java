@@ -0,0 +1,79 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerActivityTest {
+
+    private static final long INTERVAL_MS = 60_000L;
+
+    private final PlayerActivity activity = new PlayerActivity();
+    private final UUID player = UUID.randomUUID();
+
+    // Stamps have millisecond resolution: keep "before" and "after" apart
+    private static void tick() throws InterruptedException {
+        Thread.sleep(2);
+    }
+
+    @Test
+    void firstWarningIsAlwaysSent() {
+        assertTrue(activity.shouldWarn(player, INTERVAL_MS));
+        assertTrue(activity.shouldWarn(null, INTERVAL_MS));
+    }
+
+    @Test
+    void silentPlayersAreNotWarnedAgain() throws InterruptedException {
+        activity.chatted(player);
+        tick();
+        activity.warned(player);
+
+        assertFalse(activity.shouldWarn(player, INTERVAL_MS));
+        assertFalse(activity.shouldWarn(player, INTERVAL_MS));
+    }
+
+    @Test
+    void busyPlayersAreSkippedOnlyOnceInARow() throws InterruptedException {
+        activity.warned(player);
+        tick();
+        activity.chatted(player);
+
+        assertFalse(activity.shouldWarn(player, INTERVAL_MS));
+        assertTrue(activity.shouldWarn(player, INTERVAL_MS));
+
+        // A sent warning resets the allowance
+        activity.warned(player);
+        tick();
+        activity.chatted(player);
+        assertFalse(activity.shouldWarn(player, INTERVAL_MS));
+        assertTrue(activity.shouldWarn(player, INTERVAL_MS));
+    }
+
+    @Test
+    void justSwitchedPlayersAreSkipped() throws InterruptedException {
+        activity.warned(player);
+        tick();
+        activity.chatted(player);
+        activity.switchedMode(player);
+
+        // Not capped, and doesn't use up the busy allowance
+        for (int i = 0; i < 3; i++) assertFalse(activity.shouldWarn(player, INTERVAL_MS));
+
+        // Once the switch is older than the interval, only the busy rule is left
+        assertFalse(activity.shouldWarn(player, 0L));
+        assertTrue(activity.shouldWarn(player, 0L));
+    }
+
+    @Test
+    void forgetStartsOver() throws InterruptedException {
+        activity.chatted(player);
+        tick();
+        activity.warned(player);
+        activity.forget(player);
+
+        assertTrue(activity.shouldWarn(player, INTERVAL_MS));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerStateTableTest {
+
+    private final PlayerStateTable table = new PlayerStateTable();
+
+    @Test
+    void unknownPlayersHaveDefaultFlags() {
+        UUID u = UUID.randomUUID();
+        assertEquals(0L, table.flags(u));
+        assertEquals(0L, table.flags(null));
+        assertEquals(-1, table.slotOf(u));
+        assertEquals(ChatMode.LOCAL, PlayerStateTable.mode(table.flags(u)));
+    }
+
+    @Test
+    void setAndToggleOnlyTouchTheirBits() {
+        UUID u = UUID.randomUUID();
+
+        table.set(u, PlayerStateTable.MODE_GLOBAL, true);
+        assertEquals(ChatMode.GLOBAL, PlayerStateTable.mode(table.flags(u)));
+
+        assertTrue(table.toggle(u, PlayerStateTable.DEBUG));
+        assertTrue(PlayerStateTable.has(table.flags(u), PlayerStateTable.DEBUG));
+        assertEquals(ChatMode.GLOBAL, PlayerStateTable.mode(table.flags(u)));
+
+        assertFalse(table.toggle(u, PlayerStateTable.DEBUG));
+        table.set(u, PlayerStateTable.MODE_GLOBAL, false);
+        assertEquals(0L, table.flags(u));
+    }
+
+    @Test
+    void releasedSlotsAreReusedWithCleanFlags() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        table.set(a, PlayerStateTable.MODE_GLOBAL | PlayerStateTable.DEBUG, true);
+        int slot = table.slotOf(a);
+
+        assertEquals(PlayerStateTable.MODE_GLOBAL | PlayerStateTable.DEBUG, table.release(a));
+        assertEquals(0L, table.release(a));
+        assertEquals(0L, table.flags(a));
+
+        table.set(b, PlayerStateTable.DEBUG, true);
+        assertEquals(slot, table.slotOf(b));
+        assertEquals(PlayerStateTable.DEBUG, table.flags(b));
+        assertEquals(0L, table.flags(a));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID u = UUID.randomUUID();
+            players.add(u);
+            table.set(u, PlayerStateTable.MODE_GLOBAL, i % 2 == 0);
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(i % 2 == 0, PlayerStateTable.has(table.flags(players.get(i)), PlayerStateTable.MODE_GLOBAL));
+        }
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    void readersNeverSeeAnotherPlayersFlags() throws Exception {
+        // a always reads 0 (never set); b's slot is a's old one and always has DEBUG
+        UUID a = UUID.randomUUID();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                if (table.flags(a) != 0L) failure.compareAndSet(null, "a read flags it never had");
+            }
+        });
+        reader.start();
+
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                table.acquire(a);
+                table.release(a);
+
+                UUID b = UUID.randomUUID();
+                table.set(b, PlayerStateTable.DEBUG, true);
+                table.release(b);
+            }
+        } finally {
+            stop.set(true);
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsernameTrieTest {
+
+    private final UsernameTrie trie = new UsernameTrie();
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID alex = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    void exactNameWinsOverLongerNames() {
+        trie.put("Al", alice, true);
+        trie.put("Alex", alex, true);
+
+        UsernameTrie.Match m = trie.lookup("al", true, 8);
+        assertEquals(alice, m.uuid());
+        assertEquals("Al", m.name());
+    }
+
+    @Test
+    void uniquePrefixResolves() {
+        trie.put("Alice", alice, true);
+        trie.put("Bob", bob, true);
+
+        UsernameTrie.Match m = trie.lookup("ALI", true, 8);
+        assertTrue(m.found());
+        assertEquals(alice, m.uuid());
+    }
+
+    @Test
+    void ambiguousPrefixListsSuggestions() {
+        trie.put("Alice", alice, true);
+        trie.put("alex", alex, true);
+        trie.put("Bob", bob, true);
+
+        UsernameTrie.Match m = trie.lookup("al", true, 8);
+        assertFalse(m.found());
+        assertTrue(m.ambiguous());
+        assertEquals(List.of("alex", "Alice"), m.suggestions());
+    }
+
+    @Test
+    void suggestionsAreCapped() {
+        for (int i = 0; i < 20; i++) trie.put("Player" + i, UUID.randomUUID(), true);
+
+        assertEquals(3, trie.lookup("player", true, 3).suggestions().size());
+    }
+
+    @Test
+    void cappedSuggestionsAreTheFirstAlphabetically() {
+        String[] names = {"Zed", "mia", "Max", "mo", "Mark", "milo", "Mabel", "mud", "Mel"};
+        for (String n : names) trie.put(n, UUID.randomUUID(), true);
+
+        assertEquals(List.of("Mabel", "Mark", "Max"), trie.lookup("m", true, 3).suggestions());
+        assertEquals(List.of("Mabel", "Mark", "Max", "Mel"), trie.complete("", true, 4));
+        assertEquals(List.of("mia", "milo"), trie.complete("mi", true, 2));
+    }
+
+    @Test
+    void offlineNamesOnlyMatchWhenAllowed() {
+        trie.put("Alice", alice, true);
+        trie.put("Alex", alex, true);
+        trie.setOnline("Alex", alex, false);
+
+        // Only one online name under "al"
+        assertEquals(alice, trie.lookup("al", true, 8).uuid());
+        assertTrue(trie.lookup("al", false, 8).ambiguous());
+
+        assertFalse(trie.lookup("alex", true, 8).found());
+        assertEquals(alex, trie.lookup("alex", false, 8).uuid());
+    }
+
+    @Test
+    void removeOfflineKeepsOnlineAndTakenOverNames() {
+        trie.put("Alice", alice, true);
+        trie.removeOffline("Alice", alice);
+        assertEquals(alice, trie.lookup("alice", true, 8).uuid());
+
+        // Name taken over by another player: the old owner can't remove it
+        trie.put("Alice", bob, false);
+        trie.removeOffline("Alice", alice);
+        assertEquals(bob, trie.lookup("alice", false, 8).uuid());
+
+        trie.removeOffline("Alice", bob);
+        assertFalse(trie.lookup("alice", false, 8).found());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void completeIsSortedAndHonoursOnlineOnly() {
+        trie.put("bob", bob, true);
+        trie.put("Alice", alice, true);
+        trie.put("Alex", alex, false);
+
+        assertEquals(List.of("Alex", "Alice", "bob"), trie.complete("", false, 8));
+        assertEquals(List.of("Alice", "bob"), trie.complete("", true, 8));
+        assertEquals(List.of("Alice"), trie.complete("ali", true, 8));
+    }
+
+    @Test
+    void unknownOrBlankNamesMatchNothing() {
+        trie.put("Alice", alice, true);
+
+        assertFalse(trie.lookup("zed", false, 8).found());
+        assertFalse(trie.lookup("zed", false, 8).ambiguous());
+        assertFalse(trie.lookup("  ", false, 8).found());
+        assertFalse(trie.lookup(null, false, 8).found());
+    }
+}
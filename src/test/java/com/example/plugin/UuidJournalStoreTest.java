@@ -0,0 +1,111 @@
+package com.example.plugin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidJournalStoreTest {
+
+    // 1 op byte + msb + lsb + value
+    private static final int RECORD_BYTES = 25;
+
+    @TempDir
+    Path dir;
+
+    private final ChatScheduler scheduler = new ChatScheduler();
+
+    @AfterEach
+    void stopScheduler() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void journalIsReplayedOnOpen() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        UuidJournalStore store = UuidJournalStore.open(dir, "admins", scheduler);
+        assertTrue(store.isDurable());
+        store.add(a);
+        assertEquals(2, store.addAll(List.of(a, b, c)));
+        store.remove(b);
+        store.put(c, 42L);
+        store.close();
+
+        UuidJournalStore reopened = UuidJournalStore.open(dir, "admins", scheduler);
+        assertEquals(Set.of(a, c), Set.copyOf(reopened.keys()));
+        assertEquals(42L, reopened.get(c, 0L));
+        reopened.close();
+    }
+
+    @Test
+    void tornTailIsTruncatedAndNewRecordsStillReplay() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        Path journal = dir.resolve("admins.journal");
+
+        UuidJournalStore store = UuidJournalStore.open(dir, "admins", scheduler);
+        store.add(a);
+        store.close();
+
+        // Crash mid-append: half a record at the end
+        Files.write(journal, new byte[RECORD_BYTES / 2], StandardOpenOption.APPEND);
+
+        UuidJournalStore reopened = UuidJournalStore.open(dir, "admins", scheduler);
+        assertEquals(Set.of(a), Set.copyOf(reopened.keys()));
+        assertEquals(RECORD_BYTES, Files.size(journal));
+
+        reopened.add(b);
+        reopened.close();
+
+        UuidJournalStore again = UuidJournalStore.open(dir, "admins", scheduler);
+        assertEquals(Set.of(a, b), Set.copyOf(again.keys()));
+        again.close();
+    }
+
+    @Test
+    void compactMovesEverythingIntoTheSnapshot() throws Exception {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        UuidJournalStore store = UuidJournalStore.open(dir, "admins", scheduler);
+        store.addAll(List.of(a, b));
+        store.remove(a);
+        store.compact();
+
+        assertEquals(0L, Files.size(dir.resolve("admins.journal")));
+        assertTrue(Files.exists(dir.resolve("admins.snapshot")));
+        store.close();
+
+        UuidJournalStore reopened = UuidJournalStore.open(dir, "admins", scheduler);
+        assertEquals(Set.of(b), Set.copyOf(reopened.keys()));
+        reopened.close();
+    }
+
+    @Test
+    void unreadableFilesLeaveAWorkingMemoryOnlyStore() throws Exception {
+        // The data dir is a file: nothing can be opened
+        Path notADir = dir.resolve("blocked");
+        Files.writeString(notADir, "x");
+
+        UuidJournalStore store = UuidJournalStore.open(notADir, "admins", scheduler);
+        assertFalse(store.isDurable());
+
+        UUID a = UUID.randomUUID();
+        assertTrue(store.add(a));
+        assertTrue(store.contains(a));
+        store.close();
+    }
+}